@@ -0,0 +1,312 @@
+package com.gepardec.notizblock.benchmark;
+
+import com.gepardec.notizblock.entity.CompressedTextConverter;
+import com.gepardec.notizblock.entity.Note;
+import com.gepardec.notizblock.entity.NoteHistory;
+import com.gepardec.notizblock.history.RevisionCodec;
+import com.gepardec.notizblock.migration.SchemaMigrator;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import com.gepardec.notizblock.repository.ContentStoreRepository;
+import com.gepardec.notizblock.repository.HistoryOutboxRepository;
+import com.gepardec.notizblock.repository.NoteHistoryRepository;
+import com.gepardec.notizblock.repository.NoteRepository;
+import com.gepardec.notizblock.repository.StatisticsRepository;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.NotificationOptions;
+import jakarta.enterprise.util.TypeLiteral;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.Persistence;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Startet NotizblockPU ohne Container gegen eine embedded H2 und verdrahtet die Repositories von Hand
+ * Unterschiede zum Betrieb in WildFly:
+ * - RESOURCE_LOCAL statt JTA, jede Operation läuft in einer eigenen Transaktion mit frischem Persistence Context
+ * - kein Second-Level-/Query-Cache (Infinispan wird von WildFly bereitgestellt), gemessen wird der Datenbankpfad
+ * - NoteChangedEvents werden verworfen (kein CDI), die Outbox-Zeilen von create/update schreibt kein HistoryWriter weg
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    // Anzahl der Zeilen pro Transaktion beim Befüllen
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Wie in NoteHistoryRepository: jede 10. Revision ist ein Snapshot
+    private static final int SNAPSHOT_INTERVAL = 10;
+
+    private static final String[] WORDS = {
+            "notiz", "termin", "projekt", "idee", "einkauf", "meeting", "entwurf", "rechnung", "urlaub",
+            "bericht", "aufgabe", "kunde", "angebot", "review", "release", "datenbank", "cache", "index"
+    };
+
+    private final String url;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final NoteRepository noteRepository = new NoteRepository();
+    private final NoteHistoryRepository historyRepository = new NoteHistoryRepository();
+    private final HistoryOutboxRepository historyOutboxRepository = new HistoryOutboxRepository();
+    private final StatisticsRepository statisticsRepository = new StatisticsRepository();
+    private final ContentStoreRepository contentStoreRepository = new ContentStoreRepository();
+    private final NoteReadModel noteReadModel = new NoteReadModel();
+    private final Random random = new Random(42);
+
+    BenchmarkDatabase(String name) {
+        url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        // Schema wie im Betrieb über die Migrationen anlegen
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            new SchemaMigrator().migrate(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema konnte nicht angelegt werden", e);
+        }
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jakarta.persistence.transactionType", "RESOURCE_LOCAL");
+        // Statt der JNDI-DataSource aus persistence.xml den eingebauten Connection-Pool von Hibernate verwenden
+        properties.put("jakarta.persistence.jtaDataSource", null);
+        properties.put("jakarta.persistence.jdbc.url", url);
+        properties.put("jakarta.persistence.jdbc.user", "sa");
+        properties.put("jakarta.persistence.jdbc.password", "");
+        properties.put("hibernate.connection.pool_size", "5");
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.format_sql", "false");
+        properties.put("hibernate.generate_statistics", "false");
+        properties.put("hibernate.cache.use_second_level_cache", "false");
+        properties.put("hibernate.cache.use_query_cache", "false");
+        properties.put("jakarta.persistence.sharedCache.mode", "NONE");
+        properties.put("hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        entityManagerFactory = Persistence.createEntityManagerFactory("NotizblockPU", properties);
+        entityManager = entityManagerFactory.createEntityManager();
+
+        inject(statisticsRepository, "entityManager", entityManager);
+        inject(contentStoreRepository, "entityManager", entityManager);
+        inject(historyRepository, "entityManager", entityManager);
+        inject(historyRepository, "statisticsRepository", statisticsRepository);
+        inject(historyRepository, "contentStoreRepository", contentStoreRepository);
+        inject(historyOutboxRepository, "entityManager", entityManager);
+        inject(historyOutboxRepository, "historyRepository", historyRepository);
+        inject(historyOutboxRepository, "contentStoreRepository", contentStoreRepository);
+        inject(noteRepository, "entityManager", entityManager);
+        inject(noteRepository, "historyRepository", historyRepository);
+        inject(noteRepository, "historyOutboxRepository", historyOutboxRepository);
+        inject(noteRepository, "statisticsRepository", statisticsRepository);
+        inject(noteRepository, "contentStoreRepository", contentStoreRepository);
+        inject(noteRepository, "noteChangedEvent", new DiscardingEvent<>());
+        inject(noteReadModel, "noteRepository", noteRepository);
+    }
+
+    NoteRepository noteRepository() {
+        return noteRepository;
+    }
+
+    NoteHistoryRepository historyRepository() {
+        return historyRepository;
+    }
+
+    /**
+     * Lesemodell ohne Scheduler und Events: nach load mit rebuild() aufbauen, danach nur lesen
+     */
+    NoteReadModel noteReadModel() {
+        return noteReadModel;
+    }
+
+    /**
+     * Führt eine Operation wie ein @Transactional-Aufruf im Container aus
+     * (eigene Transaktion, danach leerer Persistence Context)
+     */
+    <T> T inTransaction(Supplier<T> operation) {
+        EntityTransaction transaction = entityManager.getTransaction();
+        transaction.begin();
+        try {
+            T result = operation.get();
+            transaction.commit();
+            return result;
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Legt noteCount Notizen mit je historyPerNote History-Einträgen per JDBC-Batch an
+     * Die IDs sind fortlaufend ab 1, die Sequenzen werden danach dahinter gesetzt
+     */
+    void load(int noteCount, int historyPerNote) {
+        LocalDateTime start = LocalDateTime.now().minusDays(365);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             // ref_count setzt recalculate nach dem Befüllen
+             PreparedStatement contents = connection.prepareStatement(
+                     "MERGE INTO content_store (hash, data, ref_count) KEY (hash) VALUES (?, ?, 0)");
+             PreparedStatement notes = connection.prepareStatement(
+                     "INSERT INTO notes (id, version, title, content_hash, preview, createdAt, updatedAt) "
+                             + "VALUES (?, 0, ?, ?, ?, ?, ?)");
+             PreparedStatement history = connection.prepareStatement(
+                     "INSERT INTO note_history (id, note_id, changeType, changedAt, revision, snapshot, payload, "
+                             + "content_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            connection.setAutoCommit(false);
+            long historyId = 0;
+            int pending = 0;
+            for (long id = 1; id <= noteCount; id++) {
+                String title = "Notiz " + id + " " + words(3);
+                String content = words(40);
+                LocalDateTime createdAt = start.plusSeconds(id);
+                String hash = ContentStoreRepository.hash(content);
+                contents.setString(1, hash);
+                contents.setBytes(2, CompressedTextConverter.encode(content));
+                contents.addBatch();
+                notes.setLong(1, id);
+                notes.setString(2, title);
+                notes.setString(3, hash);
+                notes.setString(4, NoteSummary.previewOf(content));
+                notes.setObject(5, createdAt);
+                notes.setObject(6, createdAt);
+                notes.addBatch();
+                pending++;
+
+                String previousContent = null;
+                for (int revision = 1; revision <= historyPerNote; revision++) {
+                    String revisionContent = revision == 1 ? content : previousContent + " " + words(2);
+                    boolean snapshot = (revision - 1) % SNAPSHOT_INTERVAL == 0;
+                    history.setLong(1, ++historyId);
+                    history.setLong(2, id);
+                    history.setString(3, revision == 1 ? "CREATED" : "UPDATED");
+                    history.setObject(4, createdAt.plusMinutes(revision));
+                    history.setInt(5, revision);
+                    history.setBoolean(6, snapshot);
+                    if (snapshot) {
+                        // Wie in NoteHistoryRepository: der Inhalt eines Snapshots liegt im content_store
+                        String revisionHash = ContentStoreRepository.hash(revisionContent);
+                        contents.setString(1, revisionHash);
+                        contents.setBytes(2, CompressedTextConverter.encode(revisionContent));
+                        contents.addBatch();
+                        history.setBytes(7, RevisionCodec.encodeSnapshotReference(title));
+                        history.setString(8, revisionHash);
+                    } else {
+                        history.setBytes(7, RevisionCodec.encodeDelta(previousContent, title, revisionContent));
+                        history.setString(8, null);
+                    }
+                    history.addBatch();
+                    previousContent = revisionContent;
+                    pending++;
+                }
+
+                if (pending >= LOAD_BATCH_SIZE) {
+                    // Inhalte und Notizen zuerst, die anderen Zeilen verweisen per Foreign Key darauf
+                    contents.executeBatch();
+                    notes.executeBatch();
+                    history.executeBatch();
+                    connection.commit();
+                    pending = 0;
+                }
+            }
+            contents.executeBatch();
+            notes.executeBatch();
+            history.executeBatch();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("ALTER SEQUENCE " + Note.SEQUENCE_NAME + " RESTART WITH " + (noteCount + 1));
+                statement.executeUpdate("ALTER SEQUENCE " + NoteHistory.SEQUENCE_NAME + " RESTART WITH " + (historyId + 1));
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Testdaten konnten nicht angelegt werden", e);
+        }
+        // Die Zeilen wurden an den Zählern vorbei eingefügt
+        inTransaction(() -> {
+            statisticsRepository.recalculate();
+            contentStoreRepository.recalculate();
+            return null;
+        });
+    }
+
+    /**
+     * Erzeugt einen Text aus zufälligen Wörtern
+     */
+    String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void close() {
+        entityManager.close();
+        entityManagerFactory.close();
+        // Die In-Memory-Datenbank lebt bis zum Ende der JVM, für den nächsten Durchlauf leeren
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Benchmark-Datenbank konnte nicht geleert werden", e);
+        }
+    }
+
+    private static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Feld " + fieldName + " in " + target.getClass().getSimpleName()
+                    + " konnte nicht gesetzt werden", e);
+        }
+    }
+
+    /**
+     * Event ohne Beobachter (Suchindex und History-Writer laufen nur im Container)
+     */
+    private static final class DiscardingEvent<T> implements Event<T> {
+
+        @Override
+        public void fire(T event) {
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(U event) {
+            return CompletableFuture.completedFuture(event);
+        }
+
+        @Override
+        public <U extends T> CompletionStage<U> fireAsync(U event, NotificationOptions options) {
+            return CompletableFuture.completedFuture(event);
+        }
+
+        @Override
+        public Event<T> select(Annotation... qualifiers) {
+            return this;
+        }
+
+        @Override
+        public <U extends T> Event<U> select(Class<U> subtype, Annotation... qualifiers) {
+            return new DiscardingEvent<>();
+        }
+
+        @Override
+        public <U extends T> Event<U> select(TypeLiteral<U> subtype, Annotation... qualifiers) {
+            return new DiscardingEvent<>();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.gepardec.notizblock.benchmark;
+
+import com.gepardec.notizblock.entity.CompressedTextConverter;
+import com.gepardec.notizblock.entity.Note;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark für Note.getTruncatedContent (wird pro Zeile der Übersicht aufgerufen) und für das
+ * Kodieren/Dekodieren des Inhalts beim Speichern und Laden (CompressedTextConverter)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteBenchmark {
+
+    // Länge der Vorschau in der Übersicht
+    private static final int MAX_LENGTH = 100;
+
+    private static final String[] WORDS = {
+            "notiz", "termin", "projekt", "idee", "einkauf", "meeting", "entwurf", "rechnung", "urlaub"
+    };
+
+    @Param({"50", "500", "5000", "100000"})
+    private int contentLength;
+
+    private Note note;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        // Text aus Wörtern statt eines wiederholten Zeichens, damit die Kompression realistisch bleibt
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder(contentLength + 10);
+        while (content.length() < contentLength) {
+            content.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        content.setLength(contentLength);
+        note = new Note("Benchmark", content.toString());
+        encoded = CompressedTextConverter.encode(note.getContent());
+    }
+
+    @Benchmark
+    public String getTruncatedContent() {
+        return note.getTruncatedContent(MAX_LENGTH);
+    }
+
+    @Benchmark
+    public byte[] encodeContent() {
+        return CompressedTextConverter.encode(note.getContent());
+    }
+
+    @Benchmark
+    public String decodeContent() {
+        return CompressedTextConverter.decode(encoded);
+    }
+}
@@ -0,0 +1,68 @@
+package com.gepardec.notizblock.benchmark;
+
+import com.gepardec.notizblock.entity.NoteHistory;
+import com.gepardec.notizblock.repository.NoteHistoryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für die Historie einer Notiz bei wachsender Anzahl History-Einträge pro Notiz
+ * Die Anzahl der Notizen ist fest (1000), bei 1000 Einträgen pro Notiz enthält note_history 1 Mio. Zeilen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteHistoryRepositoryBenchmark {
+
+    private static final int NOTE_COUNT = 1000;
+
+    @Param({"0", "10", "100", "1000"})
+    private int historyPerNote;
+
+    private BenchmarkDatabase database;
+    private NoteHistoryRepository historyRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase("history" + historyPerNote);
+        database.load(NOTE_COUNT, historyPerNote);
+        historyRepository = database.historyRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<NoteHistory> findByNoteId() {
+        return database.inTransaction(() -> historyRepository.findByNoteId(randomNoteId()));
+    }
+
+    @Benchmark
+    public Long countByNoteId() {
+        return database.inTransaction(() -> historyRepository.countByNoteId(randomNoteId()));
+    }
+
+    private static long randomNoteId() {
+        return ThreadLocalRandom.current().nextLong(1, NOTE_COUNT + 1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.gepardec.notizblock.benchmark;
+
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import com.gepardec.notizblock.repository.NoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vergleicht die Anfragen der Übersicht aus der Datenbank (NoteRepository) mit dem NoteReadModel
+ * Seite der Tabelle nach Titel sortiert an zufälliger Position und Anzahl mit Titelfilter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteReadModelBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    // Kommt in etwa jedem sechsten Titel vor (drei von 18 Wörtern)
+    private static final String TITLE_FILTER = "projekt";
+
+    @Param({"1000", "10000", "100000"})
+    private int noteCount;
+
+    private BenchmarkDatabase database;
+    private NoteRepository noteRepository;
+    private NoteReadModel noteReadModel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase("readmodel" + noteCount);
+        database.load(noteCount, 0);
+        noteRepository = database.noteRepository();
+        noteReadModel = database.noteReadModel();
+        noteReadModel.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<NoteSummary> findPageDatabase() {
+        return database.inTransaction(() -> noteRepository.findPage(randomOffset(), PAGE_SIZE, "title", true, null));
+    }
+
+    @Benchmark
+    public List<NoteSummary> findPageReadModel() {
+        return noteReadModel.findPage(randomOffset(), PAGE_SIZE, "title", true, null);
+    }
+
+    @Benchmark
+    public Long countFilteredDatabase() {
+        return database.inTransaction(() -> noteRepository.count(TITLE_FILTER));
+    }
+
+    @Benchmark
+    public Long countFilteredReadModel() {
+        return noteReadModel.count(TITLE_FILTER);
+    }
+
+    private int randomOffset() {
+        return ThreadLocalRandom.current().nextInt(noteCount / PAGE_SIZE) * PAGE_SIZE;
+    }
+}
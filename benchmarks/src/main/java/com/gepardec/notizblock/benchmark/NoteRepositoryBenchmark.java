@@ -0,0 +1,107 @@
+package com.gepardec.notizblock.benchmark;
+
+import com.gepardec.notizblock.entity.Note;
+import com.gepardec.notizblock.repository.NoteRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks für die CRUD-Operationen des NoteRepository bei wachsender Anzahl Notizen
+ * findAll lädt alle Notizen und skaliert entsprechend linear mit noteCount.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int noteCount;
+
+    private BenchmarkDatabase database;
+    private NoteRepository noteRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase("notes" + noteCount);
+        database.load(noteCount, 0);
+        noteRepository = database.noteRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Note> findAll() {
+        return database.inTransaction(noteRepository::findAll);
+    }
+
+    @Benchmark
+    public Optional<Note> findById() {
+        return database.inTransaction(() -> noteRepository.findById(randomId()));
+    }
+
+    @Benchmark
+    public Note create() {
+        return database.inTransaction(() -> noteRepository.create(newNote()));
+    }
+
+    @Benchmark
+    public Note update() {
+        return database.inTransaction(() -> {
+            Note note = noteRepository.findById(randomId()).orElseThrow();
+            note.setTitle("Geändert " + System.nanoTime());
+            return noteRepository.update(note);
+        });
+    }
+
+    @Benchmark
+    public Long delete(DeleteTarget target) {
+        return database.inTransaction(() -> {
+            noteRepository.delete(target.noteId);
+            return target.noteId;
+        });
+    }
+
+    private Note newNote() {
+        return new Note("Benchmark " + database.words(3), database.words(40));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, noteCount + 1);
+    }
+
+    /**
+     * Legt vor jedem delete-Aufruf eine Notiz an (nur für den delete-Benchmark)
+     */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+
+        private Long noteId;
+
+        @Setup(Level.Invocation)
+        public void setUp(NoteRepositoryBenchmark benchmark) {
+            noteId = benchmark.database.inTransaction(() -> benchmark.noteRepository.create(benchmark.newNote())).getId();
+        }
+    }
+}
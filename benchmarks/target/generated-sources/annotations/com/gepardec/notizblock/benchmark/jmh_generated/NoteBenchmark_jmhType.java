@@ -0,0 +1,4 @@
+package com.gepardec.notizblock.benchmark.jmh_generated;
+public class NoteBenchmark_jmhType extends NoteBenchmark_jmhType_B3 {
+}
+
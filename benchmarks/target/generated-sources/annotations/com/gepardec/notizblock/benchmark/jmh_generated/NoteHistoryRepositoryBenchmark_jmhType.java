@@ -0,0 +1,4 @@
+package com.gepardec.notizblock.benchmark.jmh_generated;
+public class NoteHistoryRepositoryBenchmark_jmhType extends NoteHistoryRepositoryBenchmark_jmhType_B3 {
+}
+
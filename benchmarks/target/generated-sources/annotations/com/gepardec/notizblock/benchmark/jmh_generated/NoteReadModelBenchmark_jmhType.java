@@ -0,0 +1,4 @@
+package com.gepardec.notizblock.benchmark.jmh_generated;
+public class NoteReadModelBenchmark_jmhType extends NoteReadModelBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package com.gepardec.notizblock.benchmark.jmh_generated;
+public class NoteRepositoryBenchmark_DeleteTarget_jmhType extends NoteRepositoryBenchmark_DeleteTarget_jmhType_B3 {
+}
+
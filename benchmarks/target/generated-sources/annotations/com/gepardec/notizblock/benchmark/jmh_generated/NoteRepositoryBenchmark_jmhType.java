@@ -0,0 +1,4 @@
+package com.gepardec.notizblock.benchmark.jmh_generated;
+public class NoteRepositoryBenchmark_jmhType extends NoteRepositoryBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,55 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Antwort auf einen Seitenaufruf oder eine Ajax-Anfrage (partial-response)
+ */
+final class JsfResponse {
+
+    private static final Pattern ERROR_NAME = Pattern.compile(
+            "<error>\\s*<error-name>(.*?)</error-name>", Pattern.DOTALL);
+
+    // Callback-Parameter von PrimeFaces, z.B. {"validationFailed":true}
+    private static final Pattern VALIDATION_FAILED = Pattern.compile("\"validationFailed\"\\s*:\\s*true");
+
+    private final int status;
+    private final String body;
+
+    JsfResponse(int status, String body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    int status() {
+        return status;
+    }
+
+    String body() {
+        return body;
+    }
+
+    /**
+     * @return Fehlerbeschreibung oder null, wenn die Anfrage erfolgreich war
+     */
+    String error() {
+        if (status != 200) {
+            return "HTTP " + status;
+        }
+        Matcher error = ERROR_NAME.matcher(body);
+        if (error.find()) {
+            // z.B. ViewExpiredException, wenn der View-State nicht mehr in der Session liegt
+            String name = error.group(1).strip();
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+        if (VALIDATION_FAILED.matcher(body).find()) {
+            return "Validierung fehlgeschlagen";
+        }
+        return null;
+    }
+
+    boolean contains(String text) {
+        return body.contains(text);
+    }
+}
@@ -0,0 +1,136 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP-Session eines Benutzers gegenüber der JSF-Anwendung
+ * Hält die Cookies (JSESSIONID) und den ViewState der zuletzt geladenen Seite. Ajax-Anfragen werden
+ * so aufgebaut, wie PrimeFaces sie im Browser sendet, der ViewState aus jeder Antwort wird übernommen.
+ * Der HttpClient wird von allen Benutzern geteilt, die Cookies verwaltet jede Session selbst.
+ */
+final class JsfSession {
+
+    static final String VIEW_STATE = "jakarta.faces.ViewState";
+
+    // Hidden-Feld im Formular einer vollständig gerenderten Seite
+    private static final Pattern VIEW_STATE_INPUT = Pattern.compile(
+            "<input[^>]*name=\"jakarta\\.faces\\.ViewState\"[^>]*>");
+    private static final Pattern VALUE_ATTRIBUTE = Pattern.compile("value=\"([^\"]*)\"");
+
+    // Neuer ViewState in einer partial-response
+    private static final Pattern VIEW_STATE_UPDATE = Pattern.compile(
+            "<update id=\"[^\"]*jakarta\\.faces\\.ViewState[^\"]*\"><!\\[CDATA\\[(.*?)]]></update>");
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final Duration timeout;
+
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    private String viewState;
+
+    JsfSession(HttpClient client, URI baseUrl, Duration timeout) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Ruft eine Seite per GET auf und übernimmt deren ViewState (zustandslose Seiten haben keinen)
+     */
+    JsfResponse get(String path) throws IOException, InterruptedException {
+        HttpRequest.Builder request = request(path).GET();
+        JsfResponse response = send(request);
+        Matcher input = VIEW_STATE_INPUT.matcher(response.body());
+        if (input.find()) {
+            Matcher value = VALUE_ATTRIBUTE.matcher(input.group());
+            if (value.find()) {
+                viewState = unescape(value.group(1));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Sendet eine Ajax-Anfrage wie PrimeFaces (jakarta.faces.partial.ajax)
+     *
+     * @param path    Seite, auf der das Formular liegt
+     * @param form    Client-ID des Formulars
+     * @param source  Client-ID der auslösenden Komponente
+     * @param execute Client-IDs der zu verarbeitenden Komponenten (process)
+     * @param render  Client-IDs der zu aktualisierenden Komponenten (update)
+     * @param fields  Weitere Formularfelder
+     */
+    JsfResponse ajax(String path, String form, String source, String execute, String render,
+                     Map<String, String> fields) throws IOException, InterruptedException {
+        if (viewState == null) {
+            throw new IllegalStateException("Kein ViewState vorhanden, zuerst " + path + " aufrufen");
+        }
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("jakarta.faces.partial.ajax", "true");
+        parameters.put("jakarta.faces.source", source);
+        parameters.put("jakarta.faces.partial.execute", execute);
+        parameters.put("jakarta.faces.partial.render", render);
+        parameters.put(source, source);
+        parameters.put(form, form);
+        parameters.putAll(fields);
+        parameters.put(VIEW_STATE, viewState);
+
+        HttpRequest.Builder request = request(path)
+                .header("Faces-Request", "partial/ajax")
+                .header("X-Requested-With", "XMLHttpRequest")
+                .header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(encode(parameters)));
+        JsfResponse response = send(request);
+        Matcher update = VIEW_STATE_UPDATE.matcher(response.body());
+        if (update.find()) {
+            viewState = update.group(1);
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(timeout);
+        if (!cookies.isEmpty()) {
+            StringJoiner cookie = new StringJoiner("; ");
+            cookies.forEach((name, value) -> cookie.add(name + "=" + value));
+            request.header("Cookie", cookie.toString());
+        }
+        return request;
+    }
+
+    private JsfResponse send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        for (String setCookie : response.headers().allValues("Set-Cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                cookies.put(pair.substring(0, separator).strip(), pair.substring(separator + 1).strip());
+            }
+        }
+        return new JsfResponse(response.statusCode(), response.body());
+    }
+
+    private static String encode(Map<String, String> parameters) {
+        StringJoiner body = new StringJoiner("&");
+        parameters.forEach((name, value) -> body.add(URLEncoder.encode(name, StandardCharsets.UTF_8)
+                + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8)));
+        return body.toString();
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&#58;", ":").replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,107 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sammelt die Antwortzeiten eines Benutzers pro Anfrage (z.B. "page", "create")
+ * Jeder Benutzer schreibt nur in seinen eigenen Recorder, ausgewertet wird nach dem Lauf über merge().
+ * Gespeichert werden alle Werte, damit die Perzentile exakt und nicht nur über Buckets bestimmt werden.
+ */
+final class LatencyRecorder {
+
+    /**
+     * Messwerte einer Anfrage
+     */
+    static final class Samples {
+
+        private long[] nanos = new long[256];
+        private int size;
+        private long errors;
+        private final Map<String, Long> errorCounts = new TreeMap<>();
+
+        void add(long latencyNanos) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latencyNanos;
+        }
+
+        void error(String error) {
+            errors++;
+            errorCounts.merge(error, 1L, Long::sum);
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i]);
+            }
+            errors += other.errors;
+            other.errorCounts.forEach((error, count) -> errorCounts.merge(error, count, Long::sum));
+        }
+
+        int count() {
+            return size;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        Map<String, Long> errorCounts() {
+            return errorCounts;
+        }
+
+        /**
+         * @return Aufsteigend sortierte Antwortzeiten
+         */
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    // Anfragen außerhalb des Messzeitraums (Ramp-up) werden verworfen
+    private final long measureFrom;
+    private final long measureUntil;
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    LatencyRecorder(long measureFrom, long measureUntil) {
+        this.measureFrom = measureFrom;
+        this.measureUntil = measureUntil;
+    }
+
+    /**
+     * @param request    Name der Anfrage
+     * @param startNanos Start der Anfrage (System.nanoTime)
+     * @param endNanos   Ende der Anfrage
+     * @param error      Fehlerbeschreibung oder null
+     */
+    void record(String request, long startNanos, long endNanos, String error) {
+        if (startNanos < measureFrom || startNanos >= measureUntil) {
+            return;
+        }
+        Samples requestSamples = samples.computeIfAbsent(request, name -> new Samples());
+        requestSamples.add(endNanos - startNanos);
+        if (error != null) {
+            requestSamples.error(error);
+        }
+    }
+
+    /**
+     * Führt die Messwerte aller Benutzer zusammen
+     *
+     * @return Messwerte pro Anfrage, nach Namen sortiert
+     */
+    static Map<String, Samples> merge(Iterable<LatencyRecorder> recorders) {
+        Map<String, Samples> merged = new TreeMap<>();
+        for (LatencyRecorder recorder : recorders) {
+            recorder.samples.forEach((request, requestSamples) ->
+                    merged.computeIfAbsent(request, name -> new Samples()).addAll(requestSamples));
+        }
+        return merged;
+    }
+}
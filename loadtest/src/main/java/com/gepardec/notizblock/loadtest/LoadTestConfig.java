@@ -0,0 +1,113 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Einstellungen des Lasttests aus System-Properties mit dem Präfix "loadtest."
+ * z.B. java -Dloadtest.users=200 -Dloadtest.durationSeconds=300 -jar target/loadtest.jar
+ */
+final class LoadTestConfig {
+
+    private static final String PREFIX = "loadtest.";
+
+    private static final String DEFAULT_MIX = "list=20,page=25,filter=15,detail=20,create=8,edit=8,delete=4";
+
+    // Basis-URL der Anwendung, immer mit abschließendem Slash
+    final URI baseUrl;
+
+    // Anzahl gleichzeitiger Benutzer (je ein virtueller Thread mit eigener HTTP-Session)
+    final int users;
+
+    // Zeitraum, über den die Benutzer gestaffelt starten; wird nicht gemessen
+    final Duration rampUp;
+
+    // Messdauer nach dem Ramp-up
+    final Duration duration;
+
+    // Mittlere Denkzeit zwischen zwei Szenarien (zufällig 50 % bis 150 %)
+    final Duration thinkTime;
+
+    final Duration requestTimeout;
+
+    // Mindestanzahl Notizen vor dem Start, fehlende legt der Lasttest über die Oberfläche an
+    final int seedNotes;
+
+    // Länge des Inhalts neuer und geänderter Notizen
+    final int contentLength;
+
+    // Gewichtung der Szenarien
+    final Map<Scenario, Integer> mix;
+
+    // Startwert der Zufallsgeneratoren, damit zwei Läufe dieselbe Abfolge von Szenarien erzeugen
+    final long randomSeed;
+
+    // Ergebnisdatei (CSV) und optional das Ergebnis eines früheren Laufs zum Vergleich
+    final String resultFile;
+    final String baselineFile;
+
+    // Fehlerquote in Prozent, ab der der Lauf mit Exit-Code 1 endet
+    final double maxErrorRate;
+
+    private LoadTestConfig() {
+        String url = getString("baseUrl", "http://localhost:8080/notizblock/");
+        baseUrl = URI.create(url.endsWith("/") ? url : url + "/");
+        users = Math.max(1, getInt("users", 50));
+        rampUp = Duration.ofSeconds(getInt("rampUpSeconds", 30));
+        duration = Duration.ofSeconds(Math.max(1, getInt("durationSeconds", 120)));
+        thinkTime = Duration.ofMillis(getInt("thinkTimeMillis", 1000));
+        requestTimeout = Duration.ofSeconds(getInt("requestTimeoutSeconds", 30));
+        seedNotes = getInt("seedNotes", 500);
+        contentLength = Math.max(1, getInt("contentLength", 500));
+        mix = parseMix(getString("mix", DEFAULT_MIX));
+        randomSeed = Long.parseLong(getString("randomSeed", "42"));
+        resultFile = getString("result", "loadtest-result.csv");
+        baselineFile = getString("baseline", null);
+        maxErrorRate = Double.parseDouble(getString("maxErrorRate", "1.0"));
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    /**
+     * Liest die Gewichtung im Format "list=20,page=25,..."; nicht genannte Szenarien laufen nicht
+     */
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Ungültiger Eintrag in " + PREFIX + "mix: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].strip());
+            if (weight > 0) {
+                mix.put(Scenario.valueOf(parts[0].strip().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException(PREFIX + "mix enthält kein Szenario");
+        }
+        return mix;
+    }
+
+    private static String getString(String key, String defaultValue) {
+        return System.getProperty(PREFIX + key, defaultValue);
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        return value != null ? Integer.parseInt(value.strip()) : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return "baseUrl=" + baseUrl + ", users=" + users + ", rampUpSeconds=" + rampUp.toSeconds()
+                + ", durationSeconds=" + duration.toSeconds() + ", thinkTimeMillis=" + thinkTime.toMillis()
+                + ", seedNotes=" + seedNotes + ", contentLength=" + contentLength + ", mix=" + mix
+                + ", randomSeed=" + randomSeed;
+    }
+}
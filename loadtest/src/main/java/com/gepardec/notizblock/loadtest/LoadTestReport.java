@@ -0,0 +1,150 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Auswertung eines Laufs: Durchsatz, p50/p99 und Fehlerquote pro Anfrage und gesamt
+ * Das Ergebnis wird als Tabelle ausgegeben und als CSV gespeichert; mit dem CSV eines früheren Laufs
+ * (loadtest.baseline) werden die Abweichungen zu diesem Stand angezeigt.
+ */
+final class LoadTestReport {
+
+    static final String TOTAL = "gesamt";
+
+    private static final String HEADER = "request,count,errors,errorRate,throughput,p50Ms,p99Ms,maxMs";
+
+    /**
+     * Kennzahlen einer Anfrage
+     *
+     * @param errorRate  Fehlerquote in Prozent
+     * @param throughput Anfragen pro Sekunde
+     */
+    record Line(String request, long count, long errors, double errorRate, double throughput,
+                double p50Ms, double p99Ms, double maxMs) {
+    }
+
+    private final List<Line> lines = new ArrayList<>();
+    private final Map<String, Map<String, Long>> errors = new LinkedHashMap<>();
+
+    LoadTestReport(Map<String, LatencyRecorder.Samples> samples, Duration duration) {
+        LatencyRecorder.Samples total = new LatencyRecorder.Samples();
+        samples.forEach((request, requestSamples) -> {
+            lines.add(line(request, requestSamples, duration));
+            total.addAll(requestSamples);
+            if (requestSamples.errors() > 0) {
+                errors.put(request, requestSamples.errorCounts());
+            }
+        });
+        lines.add(line(TOTAL, total, duration));
+    }
+
+    /**
+     * @return Kennzahlen über alle Anfragen
+     */
+    Line total() {
+        return lines.get(lines.size() - 1);
+    }
+
+    void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-14s %9s %8s %8s %9s %9s %9s %9s%n",
+                "Anfrage", "Anzahl", "Fehler", "Fehler%", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Line line : lines) {
+            out.printf(Locale.ROOT, "%-14s %9d %8d %8.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    line.request(), line.count(), line.errors(), line.errorRate(), line.throughput(),
+                    line.p50Ms(), line.p99Ms(), line.maxMs());
+        }
+        errors.forEach((request, counts) -> counts.forEach((error, count) ->
+                out.printf("Fehler %s: %s (%d)%n", request, error, count)));
+    }
+
+    /**
+     * Schreibt das Ergebnis als CSV, die Einstellungen des Laufs stehen als Kommentar davor
+     */
+    void write(Path file, LoadTestConfig config) throws IOException {
+        List<String> content = new ArrayList<>();
+        content.add("# " + LocalDateTime.now().withNano(0) + " " + config);
+        content.add(HEADER);
+        for (Line line : lines) {
+            content.add(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    line.request(), line.count(), line.errors(), line.errorRate(), line.throughput(),
+                    line.p50Ms(), line.p99Ms(), line.maxMs()));
+        }
+        Files.write(file, content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gibt die Abweichungen zu einem früheren Lauf in Prozent aus (positiv = höher als im Vergleichslauf)
+     */
+    void compare(Path baselineFile, PrintStream out) throws IOException {
+        Map<String, Line> baseline = read(baselineFile);
+        out.println("Vergleich mit " + baselineFile + " (Abweichung in %):");
+        out.printf(Locale.ROOT, "%-14s %9s %9s %9s %12s%n", "Anfrage", "req/s", "p50", "p99", "Fehler%");
+        for (Line line : lines) {
+            Line before = baseline.get(line.request());
+            if (before == null) {
+                out.printf("%-14s %s%n", line.request(), "(nicht im Vergleichslauf)");
+                continue;
+            }
+            out.printf(Locale.ROOT, "%-14s %9s %9s %9s %5.2f -> %4.2f%n", line.request(),
+                    change(before.throughput(), line.throughput()), change(before.p50Ms(), line.p50Ms()),
+                    change(before.p99Ms(), line.p99Ms()), before.errorRate(), line.errorRate());
+        }
+    }
+
+    private static Map<String, Line> read(Path file) throws IOException {
+        Map<String, Line> read = new LinkedHashMap<>();
+        for (String row : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (row.isBlank() || row.startsWith("#") || row.equals(HEADER)) {
+                continue;
+            }
+            String[] columns = row.split(",");
+            read.put(columns[0], new Line(columns[0], Long.parseLong(columns[1]), Long.parseLong(columns[2]),
+                    Double.parseDouble(columns[3]), Double.parseDouble(columns[4]), Double.parseDouble(columns[5]),
+                    Double.parseDouble(columns[6]), Double.parseDouble(columns[7])));
+        }
+        return read;
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "%+.1f", (after - before) / before * 100);
+    }
+
+    private static Line line(String request, LatencyRecorder.Samples samples, Duration duration) {
+        long[] sorted = samples.sorted();
+        long count = sorted.length;
+        double errorRate = count == 0 ? 0 : samples.errors() * 100.0 / count;
+        double throughput = count / (duration.toMillis() / 1000.0);
+        return new Line(request, count, samples.errors(), errorRate, throughput,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                millis(count == 0 ? 0 : sorted[sorted.length - 1]));
+    }
+
+    /**
+     * Perzentil nach der Nearest-Rank-Methode
+     */
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
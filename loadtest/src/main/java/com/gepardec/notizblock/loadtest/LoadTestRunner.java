@@ -0,0 +1,92 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startet den Lasttest gegen eine laufende Instanz und schreibt das Ergebnis nach loadtest-result.csv
+ *
+ * Ablauf: fehlende Testdaten über die Oberfläche anlegen, dann starten die Benutzer gestaffelt über
+ * den Ramp-up; gemessen wird nur die anschließende Laufzeit. Einstellungen siehe LoadTestConfig.
+ * Exit-Code 1, wenn die Fehlerquote über loadtest.maxErrorRate liegt.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.println("Lasttest: " + config);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        // Kennung des Laufs für eindeutige Titel, auch wenn die Datenbank Notizen früherer Läufe enthält
+        String runId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+        // Testdaten mit einem eigenen, nicht gemessenen Benutzer anlegen
+        LatencyRecorder unmeasured = new LatencyRecorder(Long.MAX_VALUE, Long.MAX_VALUE);
+        VirtualUser seeder = new VirtualUser(0, runId, config,
+                new JsfSession(client, config.baseUrl, config.requestTimeout), unmeasured, Long.MAX_VALUE);
+        int seeded = seeder.seed(config.seedNotes);
+        System.out.println(seeded + " Notizen angelegt");
+
+        long start = System.nanoTime();
+        long measureFrom = start + config.rampUp.toNanos();
+        long measureUntil = measureFrom + config.duration.toNanos();
+
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        // Ein virtueller Thread pro Benutzer, auch tausende Benutzer brauchen so keine tausend Plattform-Threads
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 1; i <= config.users; i++) {
+            LatencyRecorder recorder = new LatencyRecorder(measureFrom, measureUntil);
+            recorders.add(recorder);
+            VirtualUser user = new VirtualUser(i, runId, config,
+                    new JsfSession(client, config.baseUrl, config.requestTimeout), recorder, measureUntil);
+            long delayNanos = config.rampUp.toNanos() * (i - 1) / config.users;
+            executor.execute(() -> {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                    user.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        System.out.println(config.users + " Benutzer gestartet, Messung nach " + config.rampUp.toSeconds()
+                + " s Ramp-up für " + config.duration.toSeconds() + " s");
+
+        executor.shutdown();
+        // Laufende Anfragen dürfen noch bis zum Timeout fertig werden
+        Duration wait = config.rampUp.plus(config.duration).plus(config.requestTimeout).plus(config.thinkTime.multipliedBy(2));
+        if (!executor.awaitTermination(wait.toMillis(), TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        LoadTestReport report = new LoadTestReport(LatencyRecorder.merge(recorders), config.duration);
+        report.print(System.out);
+        Path resultFile = Path.of(config.resultFile);
+        report.write(resultFile, config);
+        System.out.println("Ergebnis gespeichert in " + resultFile.toAbsolutePath());
+        if (config.baselineFile != null) {
+            report.compare(Path.of(config.baselineFile), System.out);
+        }
+
+        if (report.total().errorRate() > config.maxErrorRate) {
+            System.out.printf("Fehlerquote %.2f %% über dem Grenzwert von %.2f %%%n",
+                    report.total().errorRate(), config.maxErrorRate);
+            System.exit(1);
+        }
+    }
+}
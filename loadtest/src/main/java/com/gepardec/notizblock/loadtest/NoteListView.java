@@ -0,0 +1,89 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Zustand der Übersichtsseite aus Sicht eines Benutzers: sichtbare Zeilen, Anzahl Notizen, Filterfeld
+ * Wird aus der vollständigen Seite und danach aus jeder Aktualisierung der Tabelle neu gelesen.
+ */
+final class NoteListView {
+
+    static final String PAGE = "index.xhtml";
+    static final String FORM = "mainForm";
+    static final String TABLE = "mainForm:notesTable";
+    static final int ROWS = 10;
+
+    private static final Pattern ROW = Pattern.compile("<tr[^>]*\\bdata-rk=\"[^\"]*\"[^>]*>");
+    private static final Pattern ROW_INDEX = Pattern.compile("\\bdata-ri=\"(\\d+)\"");
+    private static final Pattern ROW_KEY = Pattern.compile("\\bdata-rk=\"(\\d+)\"");
+    private static final Pattern NOTES_COUNT = Pattern.compile("id=\"mainForm:notesCount\"[^>]*>\\s*(\\d+)");
+
+    // Die Titelspalte hat keine eigene ID, der Name des Filterfelds wird daher aus der Seite gelesen
+    private static final Pattern FILTER_FIELD = Pattern.compile("name=\"(mainForm:notesTable:[^\"]*:filter)\"");
+
+    /**
+     * Eine Tabellenzeile
+     *
+     * @param index  Zeilenindex (Teil der Client-IDs der Buttons in der Zeile)
+     * @param noteId ID der Notiz
+     */
+    record Row(int index, long noteId) {
+
+        String buttonId(String button) {
+            return TABLE + ":" + index + ":" + button;
+        }
+    }
+
+    private List<Row> rows = List.of();
+    private long notesCount;
+    private String filterField;
+
+    /**
+     * Übernimmt Zeilen, Anzahl und Filterfeld, soweit sie in der Antwort enthalten sind
+     */
+    void update(JsfResponse response) {
+        String body = response.body();
+        if (body.contains("id=\"" + TABLE + "\"") || body.contains("<update id=\"" + TABLE + "\"")) {
+            rows = parseRows(body);
+        }
+        Matcher count = NOTES_COUNT.matcher(body);
+        if (count.find()) {
+            notesCount = Long.parseLong(count.group(1));
+        }
+        Matcher filter = FILTER_FIELD.matcher(body);
+        if (filter.find()) {
+            filterField = filter.group(1);
+        }
+    }
+
+    List<Row> rows() {
+        return rows;
+    }
+
+    long notesCount() {
+        return notesCount;
+    }
+
+    String filterField() {
+        if (filterField == null) {
+            throw new IllegalStateException("Filterfeld der Titelspalte nicht gefunden");
+        }
+        return filterField;
+    }
+
+    private static List<Row> parseRows(String body) {
+        List<Row> parsed = new ArrayList<>();
+        Matcher row = ROW.matcher(body);
+        while (row.find()) {
+            Matcher index = ROW_INDEX.matcher(row.group());
+            Matcher key = ROW_KEY.matcher(row.group());
+            if (index.find() && key.find()) {
+                parsed.add(new Row(Integer.parseInt(index.group(1)), Long.parseLong(key.group(1))));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gepardec.notizblock.loadtest;
+
+/**
+ * Benutzeraktionen, aus denen der Lasttest gewichtet zufällig auswählt (siehe loadtest.mix)
+ */
+enum Scenario {
+
+    // Übersicht neu aufrufen (GET, neue View mit neuem ViewState)
+    LIST,
+
+    // Auf eine zufällige Seite der Tabelle blättern
+    PAGE,
+
+    // Nach einem Wort im Titel filtern und den Filter wieder zurücksetzen
+    FILTER,
+
+    // Detailseite einer Notiz aus der aktuellen Tabellenseite öffnen
+    DETAIL,
+
+    // "Neue Notiz" und Speichern
+    CREATE,
+
+    // Eine selbst angelegte Notiz suchen, bearbeiten und speichern
+    EDIT,
+
+    // Eine selbst angelegte Notiz suchen und löschen
+    DELETE
+}
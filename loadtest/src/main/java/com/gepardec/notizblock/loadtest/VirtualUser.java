@@ -0,0 +1,311 @@
+package com.gepardec.notizblock.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Ein simulierter Benutzer mit eigener HTTP-Session
+ * Führt bis zum Ende des Laufs gewichtet zufällig Szenarien aus, dazwischen liegt eine Denkzeit.
+ * Bearbeitet und gelöscht werden nur Notizen, die der Benutzer selbst angelegt hat; sie werden
+ * über einen eindeutigen Titel-Zusatz in der Tabelle gesucht. So entstehen keine Konflikte zwischen
+ * den Benutzern, die als Fehler gezählt würden.
+ *
+ * Schlägt eine Anfrage fehl, bricht das Szenario ab und der Benutzer ruft die Übersicht neu auf,
+ * wie es auch ein Benutzer im Browser tun würde.
+ */
+final class VirtualUser implements Runnable {
+
+    // Wörter in den Titeln, nach denen im Szenario FILTER gesucht wird
+    private static final String[] WORDS = {
+            "Projekt", "Einkauf", "Meeting", "Idee", "Urlaub", "Rechnung", "Termin", "Protokoll"};
+
+    private static final String DETAIL_PAGE = "detail.xhtml?id=";
+
+    /**
+     * Fehlgeschlagene Anfrage, beendet das laufende Szenario
+     */
+    private static final class StepFailedException extends Exception {
+
+        StepFailedException(String message) {
+            super(message);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        JsfResponse send() throws IOException, InterruptedException;
+    }
+
+    private final int number;
+    private final String runId;
+    private final LoadTestConfig config;
+    private final JsfSession session;
+    private final LatencyRecorder recorder;
+    private final long stopAt;
+    private final Random random;
+
+    // Titel-Zusätze der selbst angelegten Notizen, älteste zuerst
+    private final List<String> ownNotes = new ArrayList<>();
+
+    // Zustand der Übersicht, null wenn sie neu aufgerufen werden muss
+    private NoteListView view;
+
+    // Aktueller Wert im Filterfeld der Titelspalte
+    private String currentFilter = "";
+
+    private int created;
+
+    /**
+     * @param number   Nummer des Benutzers (bestimmt zusammen mit loadtest.randomSeed die Abfolge)
+     * @param runId    Kennung des Laufs, Teil der Titel neuer Notizen
+     * @param session  Eigene HTTP-Session
+     * @param recorder Eigener Recorder für die Antwortzeiten
+     * @param stopAt   Ende des Laufs (System.nanoTime)
+     */
+    VirtualUser(int number, String runId, LoadTestConfig config, JsfSession session,
+                LatencyRecorder recorder, long stopAt) {
+        this.number = number;
+        this.runId = runId;
+        this.config = config;
+        this.session = session;
+        this.recorder = recorder;
+        this.stopAt = stopAt;
+        this.random = new Random(config.randomSeed + number);
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (System.nanoTime() < stopAt) {
+                Scenario scenario = nextScenario();
+                try {
+                    if (view == null) {
+                        list();
+                    }
+                    execute(scenario);
+                } catch (StepFailedException e) {
+                    view = null;
+                }
+                Thread.sleep(thinkTimeMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Legt über die Oberfläche Notizen an, bis mindestens notes vorhanden sind
+     * Diese Notizen gehören keinem Benutzer und werden im Lauf nicht gelöscht.
+     *
+     * @return Anzahl der neu angelegten Notizen
+     */
+    int seed(int notes) throws InterruptedException {
+        int added = 0;
+        try {
+            list();
+            while (view.notesCount() < notes) {
+                create(false);
+                added++;
+            }
+        } catch (StepFailedException e) {
+            throw new IllegalStateException("Anlegen der Testdaten fehlgeschlagen: " + e.getMessage(), e);
+        }
+        return added;
+    }
+
+    private void execute(Scenario scenario) throws StepFailedException, InterruptedException {
+        switch (scenario) {
+            case LIST -> list();
+            case PAGE -> page();
+            case FILTER -> {
+                filter(WORDS[random.nextInt(WORDS.length)]);
+                filter("");
+            }
+            case DETAIL -> detail();
+            case CREATE -> create(true);
+            case EDIT -> edit();
+            case DELETE -> delete();
+        }
+    }
+
+    private void list() throws StepFailedException, InterruptedException {
+        JsfResponse response = step("list", () -> session.get(NoteListView.PAGE), NoteListView.TABLE);
+        view = new NoteListView();
+        view.update(response);
+        currentFilter = "";
+    }
+
+    private void page() throws StepFailedException, InterruptedException {
+        long pages = Math.max(1, (view.notesCount() + NoteListView.ROWS - 1) / NoteListView.ROWS);
+        long first = random.nextLong(pages) * NoteListView.ROWS;
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(NoteListView.TABLE + "_pagination", "true");
+        fields.put(NoteListView.TABLE + "_first", String.valueOf(first));
+        fields.put(NoteListView.TABLE + "_rows", String.valueOf(NoteListView.ROWS));
+        tableRequest("page", fields);
+    }
+
+    private void filter(String value) throws StepFailedException, InterruptedException {
+        currentFilter = value;
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(NoteListView.TABLE + "_filtering", "true");
+        tableRequest("filter", fields);
+    }
+
+    /**
+     * Öffnet die Detailseite; wie im Browser wird danach die Übersicht neu aufgerufen
+     */
+    private void detail() throws StepFailedException, InterruptedException {
+        if (view.rows().isEmpty()) {
+            return;
+        }
+        long noteId = view.rows().get(random.nextInt(view.rows().size())).noteId();
+        // Die Notiz kann inzwischen von ihrem Ersteller gelöscht worden sein, auch das ist eine gültige Antwort
+        step("detail", () -> session.get(DETAIL_PAGE + noteId), "Notiz-Informationen", "wurde nicht gefunden");
+        view = null;
+    }
+
+    private void create(boolean own) throws StepFailedException, InterruptedException {
+        String marker = "(" + runId + "-" + number + "-" + (++created) + ")";
+        String title = WORDS[random.nextInt(WORDS.length)] + " " + marker;
+        step("prepareCreate", () -> session.ajax(NoteListView.PAGE, NoteListView.FORM,
+                "mainForm:newNoteButton", "mainForm:newNoteButton", "mainForm:noteDialogPanel", Map.of()));
+        JsfResponse response = step("create", () -> save(title), "erfolgreich");
+        view.update(response);
+        if (own) {
+            ownNotes.add(marker);
+        }
+    }
+
+    private void edit() throws StepFailedException, InterruptedException {
+        if (ownNotes.isEmpty()) {
+            create(true);
+            return;
+        }
+        String marker = ownNotes.get(random.nextInt(ownNotes.size()));
+        NoteListView.Row row = findOwnNote(marker);
+        if (row != null) {
+            step("prepareEdit", () -> session.ajax(NoteListView.PAGE, NoteListView.FORM,
+                    row.buttonId("editButton"), row.buttonId("editButton"), "mainForm:noteDialogPanel", Map.of()));
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + marker;
+            step("edit", () -> save(title), "erfolgreich");
+        }
+        filter("");
+    }
+
+    private void delete() throws StepFailedException, InterruptedException {
+        if (ownNotes.isEmpty()) {
+            create(true);
+            return;
+        }
+        String marker = ownNotes.remove(0);
+        NoteListView.Row row = findOwnNote(marker);
+        if (row != null) {
+            step("prepareDelete", () -> session.ajax(NoteListView.PAGE, NoteListView.FORM,
+                    row.buttonId("deleteButton"), row.buttonId("deleteButton"), "mainForm:deleteDialogPanel", Map.of()));
+            step("delete", () -> session.ajax(NoteListView.PAGE, NoteListView.FORM,
+                    "mainForm:confirmDeleteButton", "mainForm:confirmDeleteButton", "mainForm:messages", Map.of()),
+                    "erfolgreich");
+        }
+        filter("");
+    }
+
+    /**
+     * Sucht eine eigene Notiz über den Filter der Titelspalte
+     *
+     * @return Die Zeile oder null, wenn die Notiz nicht (mehr) vorhanden ist
+     */
+    private NoteListView.Row findOwnNote(String marker) throws StepFailedException, InterruptedException {
+        filter(marker);
+        if (view.rows().size() != 1) {
+            ownNotes.remove(marker);
+            return null;
+        }
+        return view.rows().get(0);
+    }
+
+    private JsfResponse save(String title) throws IOException, InterruptedException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("mainForm:title", title);
+        fields.put("mainForm:content", content());
+        return session.ajax(NoteListView.PAGE, NoteListView.FORM, "mainForm:saveNoteButton",
+                "mainForm:noteDialogPanel", "mainForm:messages mainForm:conflictDialogPanel", fields);
+    }
+
+    /**
+     * Anfrage an die Tabelle (Blättern, Filtern), mit den Feldern, die PrimeFaces dabei mitschickt
+     */
+    private void tableRequest(String name, Map<String, String> feature) throws StepFailedException, InterruptedException {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(NoteListView.TABLE + "_selection", "");
+        fields.put(view.filterField(), currentFilter);
+        fields.putAll(feature);
+        fields.put(NoteListView.TABLE + "_encodeFeature", "true");
+        JsfResponse response = step(name, () -> session.ajax(NoteListView.PAGE, NoteListView.FORM,
+                NoteListView.TABLE, NoteListView.TABLE, NoteListView.TABLE, fields));
+        view.update(response);
+    }
+
+    /**
+     * Führt eine Anfrage aus und zeichnet ihre Antwortzeit auf
+     *
+     * @param expected Texte, von denen mindestens einer in der Antwort vorkommen muss (keine Angabe: keine Prüfung)
+     */
+    private JsfResponse step(String name, Request request, String... expected)
+            throws StepFailedException, InterruptedException {
+        long start = System.nanoTime();
+        JsfResponse response = null;
+        String error;
+        try {
+            response = request.send();
+            error = response.error();
+            if (error == null && expected.length > 0 && !containsAny(response, expected)) {
+                error = "Unerwartete Antwort";
+            }
+        } catch (IOException e) {
+            error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        }
+        recorder.record(name, start, System.nanoTime(), error);
+        if (error != null) {
+            throw new StepFailedException(error);
+        }
+        return response;
+    }
+
+    private static boolean containsAny(JsfResponse response, String[] texts) {
+        for (String text : texts) {
+            if (response.contains(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Scenario nextScenario() {
+        int total = config.mix.values().stream().mapToInt(Integer::intValue).sum();
+        int value = random.nextInt(total);
+        for (Map.Entry<Scenario, Integer> entry : config.mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Leere Gewichtung");
+    }
+
+    private long thinkTimeMillis() {
+        return (long) (config.thinkTime.toMillis() * (0.5 + random.nextDouble()));
+    }
+
+    private String content() {
+        StringBuilder content = new StringBuilder(config.contentLength + 16);
+        while (content.length() < config.contentLength) {
+            content.append(WORDS[random.nextInt(WORDS.length)].toLowerCase()).append(' ');
+        }
+        return content.substring(0, config.contentLength);
+    }
+}
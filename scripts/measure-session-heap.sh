@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+#
+# Misst den Heap-Bedarf pro HTTP-Session einer laufenden WildFly-Instanz
+#
+# Öffnet SESSIONS neue Sessions (je ein eigener Cookie-Jar) und ruft darin die Übersicht bzw. die
+# Detailseite auf. Vor und nach jeder Runde wird per jcmd eine Klassen-Histogramm-Auswertung mit
+# vollständiger GC erstellt; die Differenz der belegten Bytes geteilt durch SESSIONS ergibt den
+# Bedarf pro Session. Die Sessions bleiben bis zum Session-Timeout bestehen, für einen zweiten Lauf
+# (z.B. mit einem anderen Build) WildFly daher neu starten.
+#
+# Verwendung: scripts/measure-session-heap.sh [SESSIONS] [NOTE_ID]
+#   BASE_URL     Basis-URL der Anwendung (Standard http://localhost:8080/notizblock)
+#   WILDFLY_PID  PID der WildFly-JVM (Standard: per jps ermittelt)
+#   WARMUP       Sessions zum Aufwärmen vor jeder Runde, nicht gemessen (Standard 50)
+#   BUILD        Bezeichnung des gemessenen Builds für RESULT_FILE (Standard: aktueller Git-Commit)
+#   RESULT_FILE  Hängt die Ergebnisse als CSV an (build;seite;sessions;bytes_gesamt;bytes_pro_session),
+#                z.B. für einen Vorher-/Nachher-Vergleich zweier Builds in derselben Datei
+
+set -euo pipefail
+
+SESSIONS=${1:-200}
+NOTE_ID=${2:-1}
+BASE_URL=${BASE_URL:-http://localhost:8080/notizblock}
+WILDFLY_PID=${WILDFLY_PID:-$(jps -l | awk '/jboss-modules/ {print $1; exit}')}
+BUILD=${BUILD:-$(git rev-parse --short HEAD 2>/dev/null || echo unbekannt)}
+RESULT_FILE=${RESULT_FILE:-}
+WARMUP=${WARMUP:-50}
+
+if [[ -z "${WILDFLY_PID}" ]]; then
+    echo "WildFly-Prozess nicht gefunden, WILDFLY_PID setzen" >&2
+    exit 1
+fi
+
+COOKIES=$(mktemp -d)
+trap 'rm -rf "${COOKIES}"' EXIT
+
+# Belegte Bytes nach vollständiger GC (letzte Zeile des Histogramms: Total <Instanzen> <Bytes>)
+live_bytes() {
+    jcmd "${WILDFLY_PID}" GC.class_histogram | awk '/^Total/ {print $3}'
+}
+
+# Öffnet COUNT Sessions und ruft darin die angegebene Seite auf
+open_sessions() {
+    local label=$1 path=$2 count=$3
+    for ((i = 1; i <= count; i++)); do
+        curl -s -o /dev/null -f -c "${COOKIES}/${label}-${i}" -b "${COOKIES}/${label}-${i}" "${BASE_URL}/${path}"
+    done
+}
+
+measure() {
+    local label=$1 path=$2
+    # Aufwärmen, damit geladene Klassen, JIT und Caches nicht in die Messung eingehen
+    open_sessions "${label}-warmup" "${path}" "${WARMUP}"
+    local before after
+    before=$(live_bytes)
+    open_sessions "${label}" "${path}" "${SESSIONS}"
+    after=$(live_bytes)
+    printf '%-10s %6d Sessions  %12d Bytes gesamt  %10d Bytes pro Session\n' \
+        "${label}" "${SESSIONS}" "$((after - before))" "$(((after - before) / SESSIONS))"
+    if [[ -n "${RESULT_FILE}" ]]; then
+        if [[ ! -s "${RESULT_FILE}" ]]; then
+            echo "build;seite;sessions;bytes_gesamt;bytes_pro_session" > "${RESULT_FILE}"
+        fi
+        echo "${BUILD};${label};${SESSIONS};$((after - before));$(((after - before) / SESSIONS))" >> "${RESULT_FILE}"
+    fi
+}
+
+echo "WildFly PID ${WILDFLY_PID}, ${BASE_URL}"
+measure "index" "index.xhtml"
+measure "detail" "detail.xhtml?id=${NOTE_ID}"
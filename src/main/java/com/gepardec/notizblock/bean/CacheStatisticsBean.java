@@ -0,0 +1,98 @@
+package com.gepardec.notizblock.bean;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Named;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * RequestScoped Bean für die Statistik-Seite
+ * Liefert Treffer/Fehlzugriffe des Second-Level- und Query-Caches zur Dimensionierung der Regionen
+ */
+@Named
+@RequestScoped
+public class CacheStatisticsBean {
+
+    @PersistenceUnit(unitName = "NotizblockPU")
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @PostConstruct
+    public void init() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Setzt alle Zähler zurück
+     */
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * @return Statistiken pro Entity-Region des Second-Level-Caches
+     */
+    public List<CacheRegionStatistics> getRegions() {
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(statistics::getDomainDataRegionStatistics)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    public long getSecondLevelCacheHitCount() {
+        return statistics.getSecondLevelCacheHitCount();
+    }
+
+    public long getSecondLevelCacheMissCount() {
+        return statistics.getSecondLevelCacheMissCount();
+    }
+
+    public long getSecondLevelCachePutCount() {
+        return statistics.getSecondLevelCachePutCount();
+    }
+
+    public long getQueryCacheHitCount() {
+        return statistics.getQueryCacheHitCount();
+    }
+
+    public long getQueryCacheMissCount() {
+        return statistics.getQueryCacheMissCount();
+    }
+
+    public long getQueryCachePutCount() {
+        return statistics.getQueryCachePutCount();
+    }
+
+    /**
+     * @return Trefferquote des Second-Level-Caches in Prozent
+     */
+    public double getSecondLevelCacheHitRatio() {
+        return hitRatio(getSecondLevelCacheHitCount(), getSecondLevelCacheMissCount());
+    }
+
+    /**
+     * @return Trefferquote des Query-Caches in Prozent
+     */
+    public double getQueryCacheHitRatio() {
+        return hitRatio(getQueryCacheHitCount(), getQueryCacheMissCount());
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : 100.0 * hits / total;
+    }
+}
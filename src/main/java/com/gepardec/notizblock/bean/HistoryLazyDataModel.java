@@ -0,0 +1,85 @@
+package com.gepardec.notizblock.bean;
+
+import com.gepardec.notizblock.model.HistoryEntrySummary;
+import com.gepardec.notizblock.repository.NoteHistoryRepository;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LazyDataModel für die Timeline auf der Detailseite (p:dataScroller)
+ * Der DataScroller lädt blockweise in Folge nach; solange der angeforderte Block direkt an den
+ * zuletzt geladenen anschließt, wird per Keyset ab der letzten Revision gelesen, sonst per Offset.
+ * In der zustandslosen Detailseite entsteht das Model pro Request neu, die zuletzt geladene Revision
+ * kommt dort als Request-Parameter historyCursor mit (siehe detail.xhtml).
+ * Die Anzahl liest die Bean aus dem gepflegten History-Zähler, count() fragt die Datenbank nicht erneut.
+ */
+public class HistoryLazyDataModel extends LazyDataModel<HistoryEntrySummary> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final NoteHistoryRepository historyRepository;
+    private final Long noteId;
+    private final int count;
+
+    // Revision des zuletzt geladenen Eintrags, zu Beginn aus dem Request, danach fortgeschrieben
+    private Integer lastRevision;
+
+    // Index des Eintrags nach lastRevision (-1 solange unbekannt)
+    private int nextFirst = -1;
+
+    /**
+     * @param cursorRevision Revision des zuletzt angezeigten Eintrags aus dem Request, null ohne Cursor
+     */
+    public HistoryLazyDataModel(NoteHistoryRepository historyRepository, Long noteId, int count,
+                                Integer cursorRevision) {
+        this.historyRepository = historyRepository;
+        this.noteId = noteId;
+        this.count = count;
+        this.lastRevision = cursorRevision;
+    }
+
+    @Override
+    public int count(Map<String, FilterMeta> filterBy) {
+        return count;
+    }
+
+    @Override
+    public List<HistoryEntrySummary> load(int first, int pageSize, Map<String, SortMeta> sortBy,
+                                          Map<String, FilterMeta> filterBy) {
+        List<HistoryEntrySummary> page;
+        if (first == 0) {
+            page = historyRepository.findPageByNoteId(noteId, null, pageSize);
+        } else if (lastRevision != null && (nextFirst < 0 || first == nextFirst)) {
+            page = historyRepository.findPageByNoteId(noteId, lastRevision, pageSize);
+        } else {
+            page = historyRepository.findPageByNoteIdWithOffset(noteId, first, pageSize);
+        }
+        nextFirst = first + page.size();
+        lastRevision = page.isEmpty() ? lastRevision : page.get(page.size() - 1).getRevision();
+        return page;
+    }
+
+    /**
+     * @return Revision des zuletzt geladenen Eintrags, Cursor für den nächsten Block
+     */
+    public Integer getLastRevision() {
+        return lastRevision;
+    }
+
+    @Override
+    public String getRowKey(HistoryEntrySummary entry) {
+        return entry.getId() != null ? entry.getId().toString() : null;
+    }
+
+    @Override
+    public HistoryEntrySummary getRowData(String rowKey) {
+        // Die Timeline hat keine Auswahl
+        return null;
+    }
+}
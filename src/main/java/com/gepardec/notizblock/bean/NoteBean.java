@@ -1,6 +1,12 @@
 package com.gepardec.notizblock.bean;
 
+import com.gepardec.notizblock.entity.ChangeType;
 import com.gepardec.notizblock.entity.Note;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import com.gepardec.notizblock.repository.NoteBulkRepository;
+import com.gepardec.notizblock.repository.NoteConflictException;
 import com.gepardec.notizblock.repository.NoteRepository;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.application.FacesMessage;
@@ -8,9 +14,12 @@ import jakarta.faces.context.FacesContext;
 import jakarta.faces.view.ViewScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
+import org.primefaces.PrimeFaces;
+import org.primefaces.model.LazyDataModel;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,29 +36,69 @@ public class NoteBean implements Serializable {
     @Inject
     private NoteRepository noteRepository;
 
-    // Liste aller Notizen
-    private List<Note> notes;
+    @Inject
+    private NoteBulkRepository noteBulkRepository;
+
+    @Inject
+    private NoteReadModel noteReadModel;
+
+    @Inject
+    private NoteScrollBean noteScrollBean;
+
+    // Lazy geladene Notizen (nur die aktuelle Seite wird aus der Datenbank gelesen)
+    private LazyDataModel<NoteSummary> notes;
+
+    // Gesamtanzahl der Notizen (für die Toolbar)
+    private long notesCount;
 
     // Aktuelle Notiz (für Erstellen/Bearbeiten)
     private Note currentNote;
 
+    // Zum Löschen vorgemerkte Notiz (für den Bestätigungsdialog)
+    private NoteSummary noteToDelete;
+
+    // In der Tabelle ausgewählte Notizen (für das Löschen mehrerer Notizen)
+    private List<NoteSummary> selectedNotes = new ArrayList<>();
+
     // Flag ob Dialog im Bearbeitungsmodus ist
     private boolean editMode;
 
+    // Konkurrierende Version aus der Datenbank, wenn beim Speichern ein Konflikt aufgetreten ist
+    private Note conflictNote;
+
+    // Flag ob die Übersicht als "Mehr laden"-Liste statt als Tabelle angezeigt wird
+    private boolean scrollMode;
+
     /**
      * Initialisierung nach Bean-Erstellung
      */
     @PostConstruct
     public void init() {
+        notes = new NoteLazyDataModel(noteReadModel);
         loadNotes();
         prepareNewNote();
     }
 
     /**
-     * Lädt alle Notizen aus der Datenbank
+     * Aktualisiert die Gesamtanzahl der Notizen
+     * Die Tabellenseiten lädt das LazyDataModel bei jedem Rendern selbst nach
      */
+    @Monitored
     public void loadNotes() {
-        notes = noteRepository.findAll();
+        notesCount = noteReadModel.count();
+        if (scrollMode) {
+            noteScrollBean.reset();
+        }
+    }
+
+    /**
+     * Wechselt zwischen Tabellenansicht und "Mehr laden"-Liste
+     */
+    public void toggleScrollMode() {
+        scrollMode = !scrollMode;
+        if (scrollMode) {
+            noteScrollBean.reset();
+        }
     }
 
     /**
@@ -58,32 +107,52 @@ public class NoteBean implements Serializable {
     public void prepareNewNote() {
         currentNote = new Note();
         editMode = false;
+        conflictNote = null;
     }
 
     /**
      * Bereitet das Bearbeiten einer existierenden Notiz vor
+     * Die Liste enthält nur Zusammenfassungen, daher wird erst hier die vollständige Notiz geladen
      *
-     * @param note Die zu bearbeitende Notiz
+     * @param summary Die Zusammenfassung der zu bearbeitenden Notiz
      */
-    public void prepareEditNote(Note note) {
-        // Erstelle eine Kopie, um die ursprüngliche Notiz nicht zu ändern
-        this.currentNote = new Note();
-        this.currentNote.setId(note.getId());
-        this.currentNote.setTitle(note.getTitle());
-        this.currentNote.setContent(note.getContent());
-        this.currentNote.setCreatedAt(note.getCreatedAt());
-        this.currentNote.setUpdatedAt(note.getUpdatedAt());
-        this.editMode = true;
+    @Monitored
+    public void prepareEditNote(NoteSummary summary) {
+        noteRepository.findById(summary.getId()).ifPresentOrElse(
+                note -> {
+                    // Die geladene Notiz ist bereits detached und wird direkt bearbeitet, eine Kopie
+                    // würde langen Inhalt nur verdoppeln. Ihre Version erkennt beim Speichern parallele Änderungen.
+                    this.currentNote = note;
+                    this.editMode = true;
+                    this.conflictNote = null;
+                },
+                () -> {
+                    prepareNewNote();
+                    addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
+                            "Notiz mit ID " + summary.getId() + " wurde nicht gefunden");
+                });
+    }
+
+    /**
+     * Merkt eine Notiz für den Lösch-Bestätigungsdialog vor
+     *
+     * @param summary Die Zusammenfassung der zu löschenden Notiz
+     */
+    public void prepareDeleteNote(NoteSummary summary) {
+        this.noteToDelete = summary;
     }
 
     /**
      * Speichert die aktuelle Notiz (Create oder Update)
+     * Geänderte Zeilen passt der NoteChangePublisher per WebSocket an, nur nach dem Anlegen
+     * wird die Ansicht neu gerendert, weil die Position der neuen Notiz vom Sortieren abhängt
      */
+    @Monitored
     public void saveNote() {
         try {
             if (editMode) {
-                // Update
-                noteRepository.update(currentNote);
+                // Update (nach einem Konflikt als Konfliktlösung in der Historie vermerkt)
+                noteRepository.update(currentNote, conflictNote != null ? ChangeType.CONFLICT_RESOLVED : ChangeType.UPDATED);
                 addMessage(FacesMessage.SEVERITY_INFO, "Erfolg",
                         "Notiz wurde erfolgreich aktualisiert");
             } else {
@@ -91,27 +160,81 @@ public class NoteBean implements Serializable {
                 noteRepository.create(currentNote);
                 addMessage(FacesMessage.SEVERITY_INFO, "Erfolg",
                         "Notiz wurde erfolgreich erstellt");
+                loadNotes();
+                PrimeFaces.current().ajax().update("mainForm:notesView", "mainForm:notesCount");
             }
 
-            // Liste neu laden und Dialog schließen
-            loadNotes();
+            // Dialog schließen
             prepareNewNote();
 
+        } catch (NoteConflictException e) {
+            handleConflict();
         } catch (Exception e) {
             addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
                     "Notiz konnte nicht gespeichert werden: " + e.getMessage());
         }
     }
 
+    /**
+     * Lädt nach einem Konflikt beim Speichern die aktuelle Version für den Konfliktdialog
+     * Die eigenen Änderungen bleiben in currentNote erhalten
+     */
+    private void handleConflict() {
+        noteRepository.findById(currentNote.getId()).ifPresentOrElse(
+                latest -> {
+                    conflictNote = latest;
+                    PrimeFaces.current().ajax().addCallbackParam("conflict", true);
+                },
+                () -> {
+                    addMessage(FacesMessage.SEVERITY_WARN, "Konflikt",
+                            "Die Notiz wurde inzwischen von jemand anderem gelöscht");
+                    loadNotes();
+                    prepareNewNote();
+                });
+    }
+
+    /**
+     * Konfliktlösung: die eigene Version über die konkurrierende Version speichern
+     */
+    @Monitored
+    public void overwriteWithMine() {
+        if (conflictNote == null) {
+            return;
+        }
+        currentNote.setVersion(conflictNote.getVersion());
+        saveNote();
+    }
+
+    /**
+     * Konfliktlösung: die eigene Version im Bearbeiten-Dialog zusammenführen
+     * Die konkurrierende Version wird im Dialog zum Vergleich angezeigt, gespeichert wird auf ihrer Basis
+     */
+    public void mergeManually() {
+        if (conflictNote != null) {
+            currentNote.setVersion(conflictNote.getVersion());
+        }
+    }
+
+    /**
+     * Konfliktlösung: die eigenen Änderungen verwerfen und die konkurrierende Version behalten
+     */
+    public void discardMine() {
+        prepareNewNote();
+        loadNotes();
+        addMessage(FacesMessage.SEVERITY_INFO, "Hinweis",
+                "Ihre Änderungen wurden verworfen, die aktuelle Version bleibt erhalten");
+    }
+
     /**
      * Löscht eine Notiz
+     * Die Zeile entfernt der NoteChangePublisher per WebSocket in allen offenen Ansichten
      *
-     * @param note Die zu löschende Notiz
+     * @param note Die Zusammenfassung der zu löschenden Notiz
      */
-    public void deleteNote(Note note) {
+    @Monitored
+    public void deleteNote(NoteSummary note) {
         try {
-            noteRepository.delete(note);
-            loadNotes();
+            noteRepository.delete(note.getId());
             addMessage(FacesMessage.SEVERITY_INFO, "Erfolg",
                     "Notiz wurde erfolgreich gelöscht");
         } catch (Exception e) {
@@ -120,6 +243,29 @@ public class NoteBean implements Serializable {
         }
     }
 
+    /**
+     * Löscht alle in der Tabelle ausgewählten Notizen samt Historie
+     * Die Notizen werden nicht einzeln geladen, sondern mengenbasiert gelöscht
+     */
+    @Monitored
+    public void deleteSelectedNotes() {
+        if (selectedNotes.isEmpty()) {
+            addMessage(FacesMessage.SEVERITY_WARN, "Hinweis", "Keine Notizen ausgewählt");
+            return;
+        }
+        try {
+            int deleted = noteBulkRepository.deleteByIds(
+                    selectedNotes.stream().map(NoteSummary::getId).toList());
+            selectedNotes = new ArrayList<>();
+            loadNotes();
+            addMessage(FacesMessage.SEVERITY_INFO, "Erfolg",
+                    deleted + " Notizen wurden erfolgreich gelöscht");
+        } catch (Exception e) {
+            addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
+                    "Notizen konnten nicht gelöscht werden: " + e.getMessage());
+        }
+    }
+
     /**
      * Bricht die aktuelle Bearbeitung ab
      */
@@ -137,11 +283,11 @@ public class NoteBean implements Serializable {
 
     // Getter und Setter
 
-    public List<Note> getNotes() {
+    public LazyDataModel<NoteSummary> getNotes() {
         return notes;
     }
 
-    public void setNotes(List<Note> notes) {
+    public void setNotes(LazyDataModel<NoteSummary> notes) {
         this.notes = notes;
     }
 
@@ -153,6 +299,26 @@ public class NoteBean implements Serializable {
         this.currentNote = currentNote;
     }
 
+    public NoteSummary getNoteToDelete() {
+        return noteToDelete;
+    }
+
+    public void setNoteToDelete(NoteSummary noteToDelete) {
+        this.noteToDelete = noteToDelete;
+    }
+
+    public List<NoteSummary> getSelectedNotes() {
+        return selectedNotes;
+    }
+
+    public void setSelectedNotes(List<NoteSummary> selectedNotes) {
+        this.selectedNotes = selectedNotes != null ? selectedNotes : new ArrayList<>();
+    }
+
+    public Note getConflictNote() {
+        return conflictNote;
+    }
+
     public boolean isEditMode() {
         return editMode;
     }
@@ -161,10 +327,14 @@ public class NoteBean implements Serializable {
         this.editMode = editMode;
     }
 
+    public boolean isScrollMode() {
+        return scrollMode;
+    }
+
     /**
      * Gibt die Anzahl der Notizen zurück
      */
-    public int getNotesCount() {
-        return notes != null ? notes.size() : 0;
+    public long getNotesCount() {
+        return notesCount;
     }
 }
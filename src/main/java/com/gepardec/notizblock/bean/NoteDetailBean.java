@@ -1,29 +1,52 @@
 package com.gepardec.notizblock.bean;
 
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.entity.ChangeType;
 import com.gepardec.notizblock.entity.Note;
-import com.gepardec.notizblock.entity.NoteHistory;
+import com.gepardec.notizblock.history.Revision;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.repository.NoteConflictException;
 import com.gepardec.notizblock.repository.NoteHistoryRepository;
 import com.gepardec.notizblock.repository.NoteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.faces.annotation.RequestParameterMap;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
-import jakarta.faces.view.ViewScoped;
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
 
-import java.io.Serial;
-import java.io.Serializable;
-import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
- * ViewScoped Backing Bean für die Detail-Ansicht einer Notiz
- * Zeigt alle Details der Notiz sowie die vollständige Änderungshistorie an
+ * RequestScoped Backing Bean für die Detail-Ansicht einer Notiz
+ * Zeigt alle Details der Notiz sowie die Änderungshistorie an
+ * Die Historie wird als Timeline blockweise nachgeladen, ohne Payloads
+ *
+ * detail.xhtml ist eine zustandslose View (f:view transient), in der Session bleibt nichts zurück.
+ * Jeder Request (auch Postbacks und das Nachladen der Timeline) lädt die Notiz daher anhand der
+ * Request-Parameter id, revision und version neu; das Formular schickt sie als Hidden-Felder mit.
+ * Beim Nachladen der Timeline kommt zusätzlich historyCursor (zuletzt angezeigte Revision) für das Keyset mit.
+ * Notiz, Anzahl der History-Einträge und ausgewählte Revision werden parallel geladen: die Notiz im
+ * Request-Thread, die beiden anderen Abfragen gleichzeitig im BackgroundExecutor. Auf diese wird höchstens
+ * notizblock.detail.loadTimeoutMs (Standard 5000) gewartet, danach schlägt der Request fehl statt zu hängen.
  */
 @Named
-@ViewScoped
-public class NoteDetailBean implements Serializable {
+@RequestScoped
+public class NoteDetailBean {
 
-    @Serial
-    private static final long serialVersionUID = 1L;
+    // Maximale Wartezeit auf die im Hintergrund geladenen Ergebnisse
+    private static final long LOAD_TIMEOUT_MS = ConfigProperties.getLong("detail.loadTimeoutMs", 5000);
+
+    @Inject
+    @RequestParameterMap
+    private Map<String, String> requestParameters;
 
     @Inject
     private NoteRepository noteRepository;
@@ -31,23 +54,43 @@ public class NoteDetailBean implements Serializable {
     @Inject
     private NoteHistoryRepository historyRepository;
 
-    // ID der anzuzeigenden Notiz (aus Query-Parameter)
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    // ID der anzuzeigenden Notiz (Request-Parameter)
     private Long id;
 
     // Die aktuell angezeigte Notiz
     private Note note;
 
-    // Historie-Einträge für diese Notiz
-    private List<NoteHistory> history;
+    // Lazy Model für die Timeline der Historie
+    private HistoryLazyDataModel history;
+
+    // Anzahl der Historie-Einträge, einmal beim Laden gezählt
+    private int historyCount;
+
+    // Nummer der anzuzeigenden Revision (optionaler Request-Parameter)
+    private Integer revision;
+
+    // Rekonstruierter Stand der ausgewählten Revision
+    private Revision selectedRevision;
 
     /**
-     * Initialisierung - wird über f:viewAction aufgerufen
-     * Lädt die Notiz und ihre Historie basierend auf dem Query-Parameter 'id'
+     * Initialisierung zu Beginn jedes Requests
+     * Lädt die Notiz und ihre Historie basierend auf dem Request-Parameter 'id'
      */
+    @PostConstruct
     public void init() {
+        try {
+            id = parseLong(requestParameters.get("id"));
+            Long parsedRevision = parseLong(requestParameters.get("revision"));
+            revision = parsedRevision != null ? Math.toIntExact(parsedRevision) : null;
+        } catch (NumberFormatException | ArithmeticException e) {
+            addMessage(FacesMessage.SEVERITY_ERROR, "Fehler", "Ungültige Notiz-ID oder Revision");
+            return;
+        }
         if (id != null) {
-            loadNote();
-            loadHistory();
+            load();
         } else {
             // Falls keine ID übergeben wurde, Fehler anzeigen
             addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
@@ -56,22 +99,73 @@ public class NoteDetailBean implements Serializable {
     }
 
     /**
-     * Lädt die Notiz anhand der ID
+     * Lädt Notiz, Anzahl der Historie-Einträge und die ausgewählte Revision anhand der ID
+     * Die Einträge der Timeline selbst lädt erst der DataScroller über das Lazy Model.
+     * Nachrichten werden erst im Request-Thread erzeugt, der FacesContext ist im Hintergrund nicht verfügbar.
      */
-    private void loadNote() {
-        noteRepository.findById(id).ifPresentOrElse(
-                foundNote -> this.note = foundNote,
-                () -> addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
-                        "Notiz mit ID " + id + " wurde nicht gefunden")
-        );
+    private void load() {
+        Long noteId = id;
+        Integer revisionNumber = revision;
+        CompletableFuture<Long> countFuture = backgroundExecutor
+                .supply(() -> historyRepository.countByNoteId(noteId))
+                .orTimeout(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        CompletableFuture<Optional<Revision>> revisionFuture = revisionNumber != null
+                ? backgroundExecutor.supply(() -> historyRepository.findRevision(noteId, revisionNumber))
+                        .orTimeout(LOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                : CompletableFuture.completedFuture(Optional.empty());
+
+        Optional<Note> foundNote = noteRepository.findById(id);
+        long count = await(countFuture);
+        Optional<Revision> foundRevision = await(revisionFuture);
+
+        if (foundNote.isEmpty()) {
+            addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
+                    "Notiz mit ID " + id + " wurde nicht gefunden");
+            return;
+        }
+        note = foundNote.get();
+        historyCount = Math.toIntExact(count);
+        history = new HistoryLazyDataModel(historyRepository, id, historyCount, parseCursor());
+        if (revision != null) {
+            foundRevision.ifPresentOrElse(
+                    found -> this.selectedRevision = found,
+                    () -> addMessage(FacesMessage.SEVERITY_WARN, "Hinweis",
+                            "Revision " + revision + " ist nicht verfügbar"));
+        }
     }
 
     /**
-     * Lädt die Historie-Einträge für die aktuelle Notiz
+     * Stellt Titel und Inhalt der ausgewählten Revision als neue Version der Notiz wieder her
+     *
+     * @return Navigation Outcome (Detailseite der aktuellen Version)
      */
-    private void loadHistory() {
-        if (note != null) {
-            history = historyRepository.findByNote(note);
+    @Monitored
+    public String restoreRevision() {
+        if (note == null || selectedRevision == null) {
+            return null;
+        }
+        try {
+            // Version, auf der die angezeigte Seite beruhte, nicht die gerade neu geladene
+            Long version = parseLong(requestParameters.get("version"));
+            if (version != null) {
+                note.setVersion(version);
+            }
+            note.setTitle(selectedRevision.getTitle());
+            note.setContent(selectedRevision.getContent());
+            noteRepository.update(note, ChangeType.RESTORED);
+            addMessage(FacesMessage.SEVERITY_INFO, "Erfolg",
+                    "Revision " + selectedRevision.getNumber() + " wurde wiederhergestellt");
+            FacesContext.getCurrentInstance().getExternalContext().getFlash().setKeepMessages(true);
+            return "detail?faces-redirect=true&id=" + id;
+        } catch (NoteConflictException e) {
+            addMessage(FacesMessage.SEVERITY_WARN, "Konflikt",
+                    "Die Notiz wurde zwischenzeitlich geändert, bitte die Revision erneut wählen");
+            FacesContext.getCurrentInstance().getExternalContext().getFlash().setKeepMessages(true);
+            return "detail?faces-redirect=true&id=" + id;
+        } catch (Exception e) {
+            addMessage(FacesMessage.SEVERITY_ERROR, "Fehler",
+                    "Revision konnte nicht wiederhergestellt werden: " + e.getMessage());
+            return null;
         }
     }
 
@@ -95,6 +189,41 @@ public class NoteDetailBean implements Serializable {
         return "index?faces-redirect=true";
     }
 
+    /**
+     * Wartet auf ein im Hintergrund geladenes Ergebnis (begrenzt durch orTimeout beim Start)
+     * Exceptions der Abfrage werden unverändert weitergegeben
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException(
+                        "Zeitüberschreitung beim Laden der Historie nach " + LOAD_TIMEOUT_MS + " ms", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Liest die Revision des zuletzt angezeigten Timeline-Eintrags, ungültige Werte fallen auf Offset zurück
+     */
+    private Integer parseCursor() {
+        try {
+            Long cursor = parseLong(requestParameters.get("historyCursor"));
+            return cursor != null ? Math.toIntExact(cursor) : null;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        return value == null || value.isBlank() ? null : Long.valueOf(value.trim());
+    }
+
     /**
      * Hilfsmethode zum Hinzufügen von Faces-Nachrichten
      */
@@ -109,26 +238,22 @@ public class NoteDetailBean implements Serializable {
         return id;
     }
 
-    public void setId(Long id) {
-        this.id = id;
+    public Integer getRevision() {
+        return revision;
     }
 
-    public Note getNote() {
-        return note;
+    public Revision getSelectedRevision() {
+        return selectedRevision;
     }
 
-    public void setNote(Note note) {
-        this.note = note;
+    public Note getNote() {
+        return note;
     }
 
-    public List<NoteHistory> getHistory() {
+    public HistoryLazyDataModel getHistory() {
         return history;
     }
 
-    public void setHistory(List<NoteHistory> history) {
-        this.history = history;
-    }
-
     /**
      * Prüft ob eine Notiz geladen wurde
      *
@@ -144,7 +269,7 @@ public class NoteDetailBean implements Serializable {
      * @return true wenn Historie-Einträge vorhanden sind
      */
     public boolean hasHistory() {
-        return history != null && !history.isEmpty();
+        return historyCount > 0;
     }
 
     /**
@@ -153,6 +278,6 @@ public class NoteDetailBean implements Serializable {
      * @return Anzahl der Einträge
      */
     public int getHistoryCount() {
-        return history != null ? history.size() : 0;
+        return historyCount;
     }
 }
@@ -0,0 +1,80 @@
+package com.gepardec.notizblock.bean;
+
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LazyDataModel für die Notizen-Tabelle
+ * Arbeitet mit NoteSummary-Projektionen, der vollständige Inhalt wird nie geladen.
+ * Pagination, Sortierung und Titelfilter übernimmt das NoteReadModel im Speicher
+ * (bzw. die Datenbank, wenn das Lesemodell nicht verfügbar ist)
+ */
+public class NoteLazyDataModel extends LazyDataModel<NoteSummary> {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final String TITLE_FIELD = "title";
+
+    private final NoteReadModel noteReadModel;
+
+    public NoteLazyDataModel(NoteReadModel noteReadModel) {
+        this.noteReadModel = noteReadModel;
+    }
+
+    @Override
+    public int count(Map<String, FilterMeta> filterBy) {
+        return noteReadModel.count(titleFilter(filterBy)).intValue();
+    }
+
+    @Override
+    public List<NoteSummary> load(int first, int pageSize, Map<String, SortMeta> sortBy, Map<String, FilterMeta> filterBy) {
+        String sortField = null;
+        boolean ascending = false;
+
+        // Die Tabelle sortiert immer nur nach einer Spalte
+        SortMeta sortMeta = sortBy.values().stream()
+                .filter(meta -> meta.getOrder() != SortOrder.UNSORTED)
+                .findFirst()
+                .orElse(null);
+        if (sortMeta != null) {
+            sortField = sortMeta.getField();
+            ascending = sortMeta.getOrder() == SortOrder.ASCENDING;
+        }
+
+        return noteReadModel.findPage(first, pageSize, sortField, ascending, titleFilter(filterBy));
+    }
+
+    @Override
+    public String getRowKey(NoteSummary note) {
+        return note.getId() != null ? note.getId().toString() : null;
+    }
+
+    @Override
+    public NoteSummary getRowData(String rowKey) {
+        try {
+            return noteReadModel.findSummaryById(Long.valueOf(rowKey)).orElse(null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Liest den aktiven Titelfilter aus den Filter-Metadaten der Tabelle
+     */
+    private String titleFilter(Map<String, FilterMeta> filterBy) {
+        return filterBy.values().stream()
+                .filter(meta -> TITLE_FIELD.equals(meta.getField()) && meta.isActive())
+                .map(meta -> String.valueOf(meta.getFilterValue()))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.gepardec.notizblock.bean;
+
+import com.gepardec.notizblock.model.NoteCursor;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import jakarta.faces.view.ViewScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ViewScoped Backing Bean für den "Mehr laden"-Modus der Übersicht
+ * Lädt die Notizen blockweise über Keyset-Pagination und merkt sich den Cursor
+ */
+@Named
+@ViewScoped
+public class NoteScrollBean implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Anzahl der Notizen, die pro Klick auf "Mehr laden" nachgeladen werden
+    private static final int PAGE_SIZE = 20;
+
+    @Inject
+    private NoteReadModel noteReadModel;
+
+    // Bisher geladene Notizen
+    private final List<NoteSummary> notes = new ArrayList<>();
+
+    // Position des zuletzt geladenen Eintrags
+    private NoteCursor cursor;
+
+    // Flag ob weitere Notizen vorhanden sind
+    private boolean hasMore = true;
+
+    /**
+     * Setzt die Liste zurück und lädt den ersten Block
+     */
+    public void reset() {
+        notes.clear();
+        cursor = null;
+        hasMore = true;
+        loadMore();
+    }
+
+    /**
+     * Lädt den nächsten Block ab dem aktuellen Cursor
+     */
+    public void loadMore() {
+        if (!hasMore) {
+            return;
+        }
+        // Einen Eintrag mehr lesen, um zu erkennen ob es danach noch weitergeht
+        List<NoteSummary> page = noteReadModel.findNextPage(cursor, PAGE_SIZE + 1);
+        hasMore = page.size() > PAGE_SIZE;
+        if (hasMore) {
+            page = page.subList(0, PAGE_SIZE);
+        }
+        if (!page.isEmpty()) {
+            NoteSummary last = page.get(page.size() - 1);
+            cursor = new NoteCursor(last.getCreatedAt(), last.getId());
+        }
+        notes.addAll(page);
+    }
+
+    // Getter
+
+    public List<NoteSummary> getNotes() {
+        return notes;
+    }
+
+    public NoteCursor getCursor() {
+        return cursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,76 @@
+package com.gepardec.notizblock.bean;
+
+import com.gepardec.notizblock.search.NoteSearchIndex;
+import com.gepardec.notizblock.search.SearchHit;
+import jakarta.faces.view.ViewScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * ViewScoped Backing Bean für die Volltextsuche auf der Übersichtsseite
+ */
+@Named
+@ViewScoped
+public class NoteSearchBean implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Maximale Anzahl angezeigter Treffer
+    private static final int MAX_RESULTS = 20;
+
+    @Inject
+    private NoteSearchIndex searchIndex;
+
+    // Suchbegriff(e) aus dem Eingabefeld
+    private String query;
+
+    // Treffer der letzten Suche (null = noch nicht gesucht)
+    private List<SearchHit> results;
+
+    /**
+     * Führt die Suche mit den eingegebenen Begriffen aus
+     */
+    public void search() {
+        if (query == null || query.isBlank()) {
+            results = null;
+            return;
+        }
+        results = searchIndex.search(query, MAX_RESULTS);
+    }
+
+    /**
+     * Setzt Suchbegriff und Treffer zurück
+     */
+    public void clear() {
+        query = null;
+        results = null;
+    }
+
+    // Getter und Setter
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public List<SearchHit> getResults() {
+        return results;
+    }
+
+    /**
+     * Prüft ob eine Suche ausgeführt wurde
+     *
+     * @return true wenn Treffer (auch leere) vorliegen
+     */
+    public boolean isSearched() {
+        return results != null;
+    }
+}
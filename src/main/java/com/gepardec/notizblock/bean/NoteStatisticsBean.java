@@ -0,0 +1,59 @@
+package com.gepardec.notizblock.bean;
+
+import com.gepardec.notizblock.model.DailyStatistics;
+import com.gepardec.notizblock.repository.StatisticsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * RequestScoped Bean für das Notiz-Dashboard auf der Statistik-Seite
+ * Liest ausschließlich die fortlaufend gepflegten Zähler, keine COUNT-Abfragen
+ */
+@Named
+@RequestScoped
+public class NoteStatisticsBean {
+
+    // Anzahl der Tage in der Tagesübersicht
+    private static final int DAYS = 14;
+
+    @Inject
+    private StatisticsRepository statisticsRepository;
+
+    private long notesCount;
+    private long historyCount;
+    private List<DailyStatistics> days;
+
+    @PostConstruct
+    public void init() {
+        notesCount = statisticsRepository.countNotes();
+        historyCount = statisticsRepository.countHistoryEntries();
+        days = statisticsRepository.findDailyStatistics(LocalDate.now().minusDays(DAYS - 1));
+    }
+
+    public long getNotesCount() {
+        return notesCount;
+    }
+
+    public long getHistoryCount() {
+        return historyCount;
+    }
+
+    /**
+     * @return Tage mit Änderungen in den letzten 14 Tagen, neuester Tag zuerst
+     */
+    public List<DailyStatistics> getDays() {
+        return days;
+    }
+
+    /**
+     * @return Durchschnittliche Anzahl History-Einträge pro Notiz
+     */
+    public double getHistoryPerNote() {
+        return notesCount == 0 ? 0 : (double) historyCount / notesCount;
+    }
+}
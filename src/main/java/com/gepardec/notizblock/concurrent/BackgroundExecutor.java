@@ -0,0 +1,208 @@
+package com.gepardec.notizblock.concurrent;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ContextService;
+import jakarta.enterprise.concurrent.ManagedExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Führt Hintergrund- und asynchrone Arbeit aus (History-Flush, Wartungsjobs, Exporte, paralleles Laden)
+ *
+ * Modus virtual (Standard): jede Aufgabe bekommt einen eigenen virtuellen Thread. Blockierendes JDBC
+ * belegt dann keinen Thread aus einem Pool mehr, sondern nur den günstigen virtuellen Thread. Den
+ * Anwendungskontext des Aufrufers (JNDI, Classloader, Security) überträgt der ContextService.
+ * Begrenzt wird nicht über die Anzahl der Threads, sondern über Semaphoren: mehr gleichzeitige Aufgaben
+ * würden nur auf Verbindungen aus dem Connection-Pool (max-pool-size 20 in notizblock-ds.xml) warten.
+ * Hintergrundjobs (execute) und paralleles Laden im Request (supply) haben getrennte Kontingente
+ * (maxConcurrency bzw. requestConcurrency), lange Exporte halten so keine Seitenaufrufe auf.
+ * Modus managed: der ManagedExecutorService von WildFly mit dessen Thread-Pool (Verhalten wie bisher).
+ *
+ * Kann eine Aufgabe nicht mehr ausgeführt werden (Herunterfahren), wird das Future von supply mit einer
+ * RejectedExecutionException abgeschlossen, wartende Aufrufer hängen also nicht.
+ *
+ * Konfiguration (System-Properties):
+ * notizblock.executor.mode (virtual oder managed, Standard virtual),
+ * notizblock.executor.maxConcurrency (Standard 10, nur virtual),
+ * notizblock.executor.requestConcurrency (Standard 8, nur virtual)
+ */
+@ApplicationScoped
+public class BackgroundExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(BackgroundExecutor.class.getName());
+
+    /**
+     * Ausführungsmodus
+     */
+    public enum Mode {
+        VIRTUAL,
+        MANAGED
+    }
+
+    @Resource
+    private ManagedExecutorService managedExecutor;
+
+    @Resource
+    private ContextService contextService;
+
+    private final Mode mode = parseMode(ConfigProperties.getString("executor.mode", "virtual"));
+    private final int maxConcurrency = Math.max(1, ConfigProperties.getInt("executor.maxConcurrency", 10));
+    private final int requestConcurrency = Math.max(1, ConfigProperties.getInt("executor.requestConcurrency", 8));
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private ExecutorService virtualExecutor;
+
+    // Kontingente für Hintergrundjobs und für paralleles Laden im Request
+    private Semaphore permits;
+    private Semaphore requestPermits;
+
+    @PostConstruct
+    void init() {
+        if (mode == Mode.VIRTUAL) {
+            virtualExecutor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("notizblock-virtual-", 0).factory());
+            permits = new Semaphore(maxConcurrency, true);
+            requestPermits = new Semaphore(requestConcurrency, true);
+            LOGGER.info(() -> "Hintergrundarbeit auf virtuellen Threads, höchstens " + maxConcurrency
+                    + " Jobs und " + requestConcurrency + " Ladevorgänge aus Requests gleichzeitig");
+        } else {
+            LOGGER.info("Hintergrundarbeit im ManagedExecutorService des Servers");
+        }
+    }
+
+    /**
+     * Führt eine Aufgabe im Hintergrund aus, Fehler werden protokolliert
+     */
+    public void execute(Runnable task) {
+        submit(task, permits, () -> LOGGER.warning("Hintergrundaufgabe beim Herunterfahren verworfen"));
+    }
+
+    /**
+     * Berechnet einen Wert parallel zum aufrufenden Request (eigenes Kontingent, siehe requestConcurrency)
+     * Aufrufer sollten nur begrenzt warten (CompletableFuture.get mit Timeout)
+     *
+     * @return Future mit dem Ergebnis, der Exception der Aufgabe oder einer RejectedExecutionException,
+     * falls die Aufgabe nicht mehr ausgeführt wird
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        submit(() -> {
+            try {
+                future.complete(task.get());
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }, requestPermits, () -> future.completeExceptionally(
+                new RejectedExecutionException("Aufgabe wurde beim Herunterfahren verworfen")));
+        return future;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return Anzahl der gerade laufenden Aufgaben
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return Anzahl der Aufgaben, die auf eine freie Stelle warten (nur virtual)
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * Wartet beim Herunterfahren kurz auf laufende Aufgaben (z.B. den letzten History-Flush)
+     */
+    @PreDestroy
+    void shutdown() {
+        if (virtualExecutor == null) {
+            return;
+        }
+        virtualExecutor.shutdown();
+        try {
+            if (!virtualExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                virtualExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            virtualExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Startet eine Aufgabe mit einer Stelle aus dem angegebenen Kontingent
+     *
+     * @param dropped Wird aufgerufen, wenn die Aufgabe nicht mehr ausgeführt wird
+     */
+    private void submit(Runnable task, Semaphore taskPermits, Runnable dropped) {
+        try {
+            if (mode == Mode.MANAGED) {
+                managedExecutor.execute(() -> run(task));
+                return;
+            }
+            Runnable contextual = contextService.contextualRunnable(task);
+            virtualExecutor.execute(() -> {
+                waiting.incrementAndGet();
+                try {
+                    taskPermits.acquire();
+                } catch (InterruptedException e) {
+                    // Nur beim Herunterfahren, die Aufgabe entfällt
+                    Thread.currentThread().interrupt();
+                    dropped.run();
+                    return;
+                } finally {
+                    waiting.decrementAndGet();
+                }
+                try {
+                    run(contextual);
+                } finally {
+                    taskPermits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.run();
+        }
+    }
+
+    private void run(Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Fehler in einer Hintergrundaufgabe", e);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private static Mode parseMode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning(() -> "Ungültiger Wert für " + ConfigProperties.PREFIX + "executor.mode: '" + value
+                    + "', verwende virtual");
+            return Mode.VIRTUAL;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.gepardec.notizblock.config;
+
+import java.util.logging.Logger;
+
+/**
+ * Zugriff auf die Konfiguration der Anwendung über System-Properties
+ * Die Werte können z.B. im Abschnitt system-properties der WildFly standalone.xml
+ * oder per -D beim Start gesetzt werden, ansonsten gelten die Standardwerte
+ */
+public final class ConfigProperties {
+
+    private static final Logger LOGGER = Logger.getLogger(ConfigProperties.class.getName());
+
+    // Präfix aller Properties der Anwendung
+    public static final String PREFIX = "notizblock.";
+
+    private ConfigProperties() {
+    }
+
+    /**
+     * Liest einen Text-Wert
+     *
+     * @param key          Name ohne Präfix, z.B. "history.batchSize"
+     * @param defaultValue Standardwert, falls die Property nicht gesetzt ist
+     * @return Konfigurierter Wert oder Standardwert
+     */
+    public static String getString(String key, String defaultValue) {
+        return System.getProperty(PREFIX + key, defaultValue);
+    }
+
+    /**
+     * Liest einen ganzzahligen Wert, ungültige Werte werden mit einer Warnung ignoriert
+     */
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /**
+     * Liest einen ganzzahligen Wert, ungültige Werte werden mit einer Warnung ignoriert
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning(() -> "Ungültiger Wert für " + PREFIX + key + ": '" + value
+                    + "', verwende Standardwert " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Liest einen booleschen Wert
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = System.getProperty(PREFIX + key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
@@ -4,16 +4,20 @@ package com.gepardec.notizblock.entity;
  * Enum für verschiedene Typen von Änderungen an einer Notiz
  */
 public enum ChangeType {
-    CREATED("Erstellt", "pi pi-plus-circle"),
-    UPDATED("Bearbeitet", "pi pi-pencil"),
-    DELETED("Gelöscht", "pi pi-trash");
+    CREATED("Erstellt", "pi pi-plus-circle", "#4caf50"),
+    UPDATED("Bearbeitet", "pi pi-pencil", "#ff9800"),
+    DELETED("Gelöscht", "pi pi-trash", "#f44336"),
+    RESTORED("Wiederhergestellt", "pi pi-replay", "#2196f3"),
+    CONFLICT_RESOLVED("Konflikt gelöst", "pi pi-exclamation-circle", "#9c27b0");
 
     private final String displayName;
     private final String icon;
+    private final String color;
 
-    ChangeType(String displayName, String icon) {
+    ChangeType(String displayName, String icon, String color) {
         this.displayName = displayName;
         this.icon = icon;
+        this.color = color;
     }
 
     /**
@@ -29,4 +33,11 @@ public enum ChangeType {
     public String getIcon() {
         return icon;
     }
+
+    /**
+     * @return CSS-Farbe des Icons in der Timeline
+     */
+    public String getColor() {
+        return color;
+    }
 }
@@ -0,0 +1,88 @@
+package com.gepardec.notizblock.entity;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Speichert Text als UTF-8 in einer BLOB-Spalte, ab einer Größenschwelle GZIP-komprimiert
+ * Komprimierte Werte erkennt decode am GZIP-Header (0x1f 0x8b): UTF-8-Text kann nicht so beginnen,
+ * da 0x8b nur als Folgebyte eines Mehrbyte-Zeichens vorkommt. Unkomprimierte Werte (kurze Texte,
+ * Bestand aus der Migration V5) brauchen daher keine Kennzeichnung.
+ *
+ * Konfiguration (System-Property):
+ * notizblock.content.compressionThreshold (Bytes ab denen komprimiert wird, Standard 1024, 0 = nie)
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final int COMPRESSION_THRESHOLD =
+            ConfigProperties.getInt("content.compressionThreshold", 1024);
+
+    private static final int GZIP_MAGIC_FIRST = 0x1f;
+    private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return encode(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] data) {
+        return decode(data);
+    }
+
+    /**
+     * Kodiert einen Text für die Datenbank (auch für JDBC-Zugriffe ohne Hibernate, z.B. den Import)
+     *
+     * @return UTF-8-Bytes, komprimiert falls der Text über der Schwelle liegt und dadurch kleiner wird
+     */
+    public static byte[] encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] plain = text.getBytes(StandardCharsets.UTF_8);
+        if (COMPRESSION_THRESHOLD <= 0 || plain.length < COMPRESSION_THRESHOLD) {
+            return plain;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(plain.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(plain);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Kaum komprimierbare Inhalte (z.B. eingefügtes Base64) unkomprimiert speichern
+        return compressed.size() < plain.length ? compressed.toByteArray() : plain;
+    }
+
+    /**
+     * Dekodiert einen mit encode geschriebenen Wert
+     */
+    public static String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (!isCompressed(data)) {
+            return new String(data, StandardCharsets.UTF_8);
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Komprimierter Inhalt ist beschädigt", e);
+        }
+    }
+
+    private static boolean isCompressed(byte[] data) {
+        return data.length >= 2
+                && (data[0] & 0xff) == GZIP_MAGIC_FIRST
+                && (data[1] & 0xff) == GZIP_MAGIC_SECOND;
+    }
+}
@@ -0,0 +1,145 @@
+package com.gepardec.notizblock.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * JPA Entity für eine noch nicht in die Historie geschriebene Änderung (Tabelle history_outbox)
+ * Wird in derselben Transaktion wie die Änderung der Notiz angelegt und vom HistoryWriter nach dem
+ * Schreiben des History-Eintrags gelöscht (siehe HistoryOutboxRepository).
+ */
+@Entity
+@Table(name = "history_outbox")
+public class HistoryOutboxEntry {
+
+    /**
+     * Name der Sequenz für die ID-Vergabe
+     */
+    public static final String SEQUENCE_NAME = "history_outbox_seq";
+
+    // Die ID bestimmt die Reihenfolge, in der die Einträge geschrieben werden
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 50)
+    private Long id;
+
+    // Ohne Fremdschlüssel, die Notiz kann vor dem Schreiben gelöscht werden
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeType changeType;
+
+    // Titel und Inhalt zum Zeitpunkt der Änderung, Grundlage für Snapshot bzw. Delta der Revision
+    @Column(nullable = false)
+    private String title;
+
+    // Der Inhalt zählt im content_store als eigener Verweis und bleibt so bis zum Schreiben erhalten
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "content_hash", nullable = false)
+    private StoredContent body;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    // Fehlgeschlagene Schreibversuche
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    // Gesetzt, sobald notizblock.history.maxAttempts erreicht ist; der Eintrag wird dann nicht mehr geschrieben
+    private LocalDateTime failedAt;
+
+    /**
+     * Default Constructor
+     */
+    protected HistoryOutboxEntry() {
+    }
+
+    /**
+     * Constructor mit allen Pflichtfeldern
+     */
+    public HistoryOutboxEntry(Long noteId, ChangeType changeType, String title, StoredContent body,
+                              LocalDateTime changedAt) {
+        this.noteId = noteId;
+        this.changeType = changeType;
+        this.title = title;
+        this.body = body;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public StoredContent getBody() {
+        return body;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HistoryOutboxEntry that = (HistoryOutboxEntry) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryOutboxEntry{" +
+                "id=" + id +
+                ", noteId=" + noteId +
+                ", changeType=" + changeType +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
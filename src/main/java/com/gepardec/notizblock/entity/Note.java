@@ -1,35 +1,74 @@
 package com.gepardec.notizblock.entity;
 
+import com.gepardec.notizblock.model.NoteSummary;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
  * JPA Entity für eine Notiz im Notizblock
+ * Tabellen und Indizes legen die Migrationen unter db/migration an, die Angaben hier müssen dazu passen
+ *
+ * Der Inhalt liegt inhaltsadressiert im content_store (StoredContent) und wird erst beim ersten Aufruf von
+ * getContent() geladen; Listen verwenden die Spalte preview. Den Verweis body setzt das NoteRepository
+ * beim Speichern passend zum Inhalt, gleiche Inhalte mehrerer Notizen liegen nur einmal vor.
  */
 @Entity
-@Table(name = "notes")
+@Cacheable
+@Table(name = "notes", indexes = {
+        // Index für die Keyset-Pagination (ORDER BY createdAt DESC, id DESC)
+        @Index(name = "idx_notes_created_at_id", columnList = "createdAt, id"),
+        // Sortierung nach Titel
+        @Index(name = "idx_notes_title", columnList = "title")
+})
 public class Note {
 
+    /**
+     * Name der Sequenz für die ID-Vergabe
+     */
+    public static final String SEQUENCE_NAME = "notes_seq";
+
+    /**
+     * Maximale Länge des Inhalts in Zeichen (Formular und REST-API)
+     */
+    public static final int MAX_CONTENT_LENGTH = 1_000_000;
+
+    // Sequenz mit Pooled-Lo-Optimizer: ein Sequenzaufruf reserviert 50 IDs, ermöglicht JDBC-Batch-Inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Titel darf nicht leer sein")
     @Column(nullable = false, length = 255)
     private String title;
 
-    @NotBlank(message = "Inhalt darf nicht leer sein")
-    @Column(nullable = false, length = 5000)
+    // Gespeicherter Inhalt (Spalte content_hash), lazy geladen
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "content_hash", nullable = false)
+    private StoredContent body;
+
+    // Aktueller Inhalt: beim Lesen aus body übernommen, beim Bearbeiten neu gesetzt
+    @Transient
     private String content;
 
+    // Anfang des Inhalts für Listenansichten, wird zusammen mit content gesetzt
+    @Column(nullable = false, length = NoteSummary.PREVIEW_LENGTH + 1)
+    private String preview;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    // Optimistic Locking: wird bei jedem Update erhöht, ein Update mit veraltetem Stand schlägt fehl
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Default Constructor
      */
@@ -42,6 +81,7 @@ public class Note {
     public Note(String title, String content) {
         this.title = title;
         this.content = content;
+        this.preview = NoteSummary.previewOf(content);
     }
 
     /**
@@ -79,12 +119,34 @@ public class Note {
         this.title = title;
     }
 
+    /**
+     * Liefert den Inhalt, beim ersten Aufruf aus dem content_store (braucht dann einen offenen Persistence Context)
+     * Die Bean Validation prüft den Getter, da das Feld transient ist und von merge nicht übernommen wird
+     */
+    @NotBlank(message = "Inhalt darf nicht leer sein")
+    @Size(max = MAX_CONTENT_LENGTH, message = "Inhalt darf höchstens " + MAX_CONTENT_LENGTH + " Zeichen lang sein")
     public String getContent() {
+        if (content == null && body != null) {
+            content = body.getText();
+        }
         return content;
     }
 
     public void setContent(String content) {
         this.content = content;
+        this.preview = NoteSummary.previewOf(content);
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public StoredContent getBody() {
+        return body;
+    }
+
+    public void setBody(StoredContent body) {
+        this.body = body;
     }
 
     public LocalDateTime getCreatedAt() {
@@ -103,19 +165,28 @@ public class Note {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Gibt den Inhalt gekürzt zurück (für Tabellenanzeige)
      * @param maxLength Maximale Länge
      * @return Gekürzter Inhalt
      */
     public String getTruncatedContent(int maxLength) {
-        if (content == null) {
+        String text = getContent();
+        if (text == null) {
             return "";
         }
-        if (content.length() <= maxLength) {
-            return content;
+        if (text.length() <= maxLength) {
+            return text;
         }
-        return content.substring(0, maxLength) + "...";
+        return text.substring(0, maxLength) + "...";
     }
 
     @Override
@@ -8,11 +8,25 @@ import java.util.Objects;
  * JPA Entity für die Änderungshistorie einer Notiz
  */
 @Entity
-@Table(name = "note_history")
+@Cacheable
+@Table(name = "note_history", indexes = {
+        // Historie einer Notiz in zeitlicher Reihenfolge
+        @Index(name = "idx_note_history_note_changed_at", columnList = "note_id, changedAt")
+}, uniqueConstraints = {
+        // Jede Revision einer Notiz höchstens einmal, z.B. bei parallelen Schreibern
+        @UniqueConstraint(name = "uq_note_history_note_revision", columnNames = {"note_id", "revision"})
+})
 public class NoteHistory {
 
+    /**
+     * Name der Sequenz für die ID-Vergabe
+     */
+    public static final String SEQUENCE_NAME = "note_history_seq";
+
+    // Sequenz mit Pooled-Lo-Optimizer: ein Sequenzaufruf reserviert 50 IDs, ermöglicht JDBC-Batch-Inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCE_NAME)
+    @SequenceGenerator(name = SEQUENCE_NAME, sequenceName = SEQUENCE_NAME, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,6 +40,25 @@ public class NoteHistory {
     @Column(nullable = false, updatable = false)
     private LocalDateTime changedAt;
 
+    // Fortlaufende Revisionsnummer pro Notiz (beginnend bei 1)
+    @Column(nullable = false)
+    private int revision;
+
+    // true wenn die Payload ein vollständiger Snapshot ist, sonst ein Delta zur Vorgänger-Revision
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    // Komprimierter Snapshot oder Delta (siehe RevisionCodec)
+    @Lob
+    @Column(name = "payload")
+    private byte[] payload;
+
+    // Inhalt eines Snapshots im content_store, die Payload enthält dann nur den Titel
+    // (null bei Deltas und bei Snapshots mit eingebettetem Inhalt aus der Zeit vor V6)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash")
+    private StoredContent body;
+
     /**
      * Default Constructor
      */
@@ -41,11 +74,14 @@ public class NoteHistory {
     }
 
     /**
-     * PrePersist Callback - setzt changedAt automatisch vor dem ersten Speichern
+     * PrePersist Callback - setzt changedAt automatisch vor dem ersten Speichern,
+     * falls kein Zeitpunkt vorgegeben wurde (z.B. bei asynchron geschriebenen Einträgen)
      */
     @PrePersist
     protected void onCreate() {
-        this.changedAt = LocalDateTime.now();
+        if (this.changedAt == null) {
+            this.changedAt = LocalDateTime.now();
+        }
     }
 
     // Getter und Setter
@@ -82,6 +118,38 @@ public class NoteHistory {
         this.changedAt = changedAt;
     }
 
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public StoredContent getBody() {
+        return body;
+    }
+
+    public void setBody(StoredContent body) {
+        this.body = body;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -99,6 +167,7 @@ public class NoteHistory {
     public String toString() {
         return "NoteHistory{" +
                 "id=" + id +
+                ", revision=" + revision +
                 ", changeType=" + changeType +
                 ", changedAt=" + changedAt +
                 '}';
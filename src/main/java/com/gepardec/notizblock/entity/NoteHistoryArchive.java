@@ -0,0 +1,121 @@
+package com.gepardec.notizblock.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * JPA Entity für einen archivierten History-Eintrag
+ * Unveränderte Kopie eines NoteHistory-Eintrags, den der HistoryRetentionJob aus der Historie verschoben hat
+ */
+@Entity
+@Table(name = "note_history_archive", indexes = {
+        // Archivierte Kette einer Notiz in Revisionsreihenfolge
+        @Index(name = "idx_note_history_archive_note_revision", columnList = "note_id, revision")
+})
+public class NoteHistoryArchive {
+
+    // ID des ursprünglichen History-Eintrags
+    @Id
+    private Long id;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ChangeType changeType;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(nullable = false)
+    private int revision;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Lob
+    @Column(name = "payload")
+    private byte[] payload;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Default Constructor
+     */
+    public NoteHistoryArchive() {
+    }
+
+    /**
+     * Erstellt die Archivkopie eines History-Eintrags
+     * Die Payload übergibt der Aufrufer, Snapshots mit eingebettetem Inhalt statt eines Verweises auf den content_store
+     */
+    public NoteHistoryArchive(NoteHistory history, byte[] payload, LocalDateTime archivedAt) {
+        this.id = history.getId();
+        this.noteId = history.getNote().getId();
+        this.changeType = history.getChangeType();
+        this.changedAt = history.getChangedAt();
+        this.revision = history.getRevision();
+        this.snapshot = history.isSnapshot();
+        this.payload = payload;
+        this.archivedAt = archivedAt;
+    }
+
+    // Getter
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NoteHistoryArchive that = (NoteHistoryArchive) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "NoteHistoryArchive{" +
+                "id=" + id +
+                ", noteId=" + noteId +
+                ", revision=" + revision +
+                '}';
+    }
+}
@@ -0,0 +1,61 @@
+package com.gepardec.notizblock.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.util.Objects;
+
+/**
+ * JPA Entity für einen Eintrag im inhaltsadressierten Speicher (Tabelle content_store)
+ * Schlüssel ist der SHA-256 des Textes, ein Eintrag wird daher nie geändert. Angelegt, gezählt und
+ * gelöscht werden die Einträge per JDBC im ContentStoreRepository, über JPA werden sie nur gelesen.
+ */
+@Entity
+@Immutable
+@Table(name = "content_store")
+public class StoredContent {
+
+    // SHA-256 der UTF-8-Bytes als Hex-String
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    // Ab einer Größenschwelle komprimiert (siehe CompressedTextConverter)
+    @Lob
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "data", nullable = false)
+    private String text;
+
+    /**
+     * Default Constructor
+     */
+    protected StoredContent() {
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StoredContent that)) return false;
+        return Objects.equals(hash, that.getHash());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(hash);
+    }
+
+    @Override
+    public String toString() {
+        return "StoredContent{" +
+                "hash='" + hash + '\'' +
+                '}';
+    }
+}
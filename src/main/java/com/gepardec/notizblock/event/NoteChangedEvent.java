@@ -0,0 +1,50 @@
+package com.gepardec.notizblock.event;
+
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.entity.Note;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI-Event für Änderungen an einer Notiz
+ * Wird vom NoteRepository innerhalb der Transaktion gefeuert und enthält eine Momentaufnahme
+ * der Notiz, damit Observer (z.B. mit during = AFTER_SUCCESS) nicht erneut laden müssen
+ *
+ * @param noteId     ID der geänderten Notiz
+ * @param changeType Art der Änderung
+ * @param title      Titel zum Zeitpunkt der Änderung
+ * @param content    Inhalt zum Zeitpunkt der Änderung
+ * @param createdAt  Erstellungsdatum der Notiz
+ * @param updatedAt  Letztes Änderungsdatum der Notiz
+ * @param changedAt  Zeitpunkt der Änderung
+ */
+public record NoteChangedEvent(Long noteId,
+                               ChangeType changeType,
+                               String title,
+                               String content,
+                               LocalDateTime createdAt,
+                               LocalDateTime updatedAt,
+                               LocalDateTime changedAt) {
+
+    /**
+     * Erstellt ein Event aus dem aktuellen Zustand einer Notiz
+     *
+     * @param note       Die geänderte Notiz
+     * @param changeType Art der Änderung
+     * @return Das Event
+     */
+    public static NoteChangedEvent of(Note note, ChangeType changeType) {
+        return new NoteChangedEvent(note.getId(), changeType, note.getTitle(), note.getContent(),
+                note.getCreatedAt(), note.getUpdatedAt(), LocalDateTime.now());
+    }
+
+    /**
+     * Erstellt ein Lösch-Event nur anhand der ID (z.B. für Bulk-Deletes ohne geladene Entity)
+     *
+     * @param noteId ID der gelöschten Notiz
+     * @return Das Event
+     */
+    public static NoteChangedEvent deleted(Long noteId) {
+        return new NoteChangedEvent(noteId, ChangeType.DELETED, null, null, null, null, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,123 @@
+package com.gepardec.notizblock.history;
+
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.repository.NoteHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Wartungsjob für die Historie: archiviert alte Einträge und fasst ältere UPDATED-Folgen zusammen
+ * Läuft periodisch im Hintergrund, jede Notiz in einer eigenen Transaktion. Betrachtet werden nur
+ * Notizen mit mehr als keepLast Einträgen; die neuesten keepLast Einträge bleiben immer erhalten.
+ * Der Scheduler stößt den Lauf nur an, ausgeführt wird er im BackgroundExecutor.
+ *
+ * Konfiguration (System-Properties):
+ * notizblock.retention.enabled (Standard true), notizblock.retention.intervalMinutes (Standard 60),
+ * notizblock.retention.keepLast (Standard 20), notizblock.retention.collapseAfterDays (Standard 30),
+ * notizblock.retention.archiveAfterDays (Standard 365)
+ */
+@ApplicationScoped
+public class HistoryRetentionJob {
+
+    private static final Logger LOGGER = Logger.getLogger(HistoryRetentionJob.class.getName());
+
+    @Inject
+    private NoteHistoryRepository historyRepository;
+
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final boolean enabled = ConfigProperties.getBoolean("retention.enabled", true);
+    private final long intervalMinutes = ConfigProperties.getLong("retention.intervalMinutes", 60);
+    private final int keepLast = Math.max(1, ConfigProperties.getInt("retention.keepLast", 20));
+    private final int collapseAfterDays = ConfigProperties.getInt("retention.collapseAfterDays", 30);
+    private final int archiveAfterDays = ConfigProperties.getInt("retention.archiveAfterDays", 365);
+
+    // Verhindert parallele Läufe
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private ScheduledFuture<?> task;
+
+    /**
+     * Startet den periodischen Lauf
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!enabled) {
+            LOGGER.info("History-Wartung ist deaktiviert");
+            return;
+        }
+        task = scheduler.scheduleWithFixedDelay(() -> backgroundExecutor.execute(this::run),
+                intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Wendet die Aufbewahrungsregeln auf alle Notizen mit langer Historie an
+     *
+     * @return Summe der archivierten und zusammengefassten Einträge
+     */
+    public RetentionResult run() {
+        if (!runLock.tryLock()) {
+            // Ein Lauf ist bereits aktiv
+            return RetentionResult.NONE;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            RetentionPolicy policy = new RetentionPolicy(keepLast,
+                    now.minusDays(collapseAfterDays), now.minusDays(archiveAfterDays));
+            long start = System.nanoTime();
+
+            List<Long> noteIds = historyRepository.findNoteIdsWithMoreEntriesThan(keepLast);
+            RetentionResult total = RetentionResult.NONE;
+            int notes = 0;
+            for (Long noteId : noteIds) {
+                try {
+                    RetentionResult result = historyRepository.applyRetention(noteId, policy);
+                    if (result.changed()) {
+                        notes++;
+                        total = total.plus(result);
+                    }
+                } catch (RuntimeException e) {
+                    // Nächster Lauf versucht es erneut, die übrigen Notizen werden trotzdem bearbeitet
+                    LOGGER.log(Level.WARNING, "Historie von Notiz " + noteId + " konnte nicht gewartet werden", e);
+                }
+            }
+
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            RetentionResult summary = total;
+            int changedNotes = notes;
+            LOGGER.info(() -> "History-Wartung: " + noteIds.size() + " Notizen geprüft, " + changedNotes
+                    + " geändert, " + summary.archived() + " Einträge archiviert, " + summary.collapsed()
+                    + " zusammengefasst (" + durationMs + " ms)");
+            return total;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Fehler bei der History-Wartung", e);
+            return RetentionResult.NONE;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.gepardec.notizblock.history;
+
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.entity.HistoryOutboxEntry;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.repository.HistoryOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Schreibt History-Einträge asynchron und gebündelt im Hintergrund
+ * Jede Änderung liegt ab dem Commit der Notiz als Zeile im Outbox (HistoryOutboxRepository). Ein Batch wird
+ * geschrieben, sobald seit dem letzten Flush batchSize Änderungen committet wurden oder spätestens nach
+ * flushIntervalMs. Der Scheduler stößt den Flush nur an, geschrieben wird im BackgroundExecutor.
+ *
+ * Schlägt ein Batch fehl, werden seine Einträge einzeln geschrieben. Ein fehlerhafter Eintrag blockiert
+ * so nur spätere Änderungen derselben Notiz und wird nach history.maxAttempts Versuchen aufgegeben.
+ *
+ * Konfiguration (System-Properties):
+ * notizblock.history.batchSize (Standard 100), notizblock.history.flushIntervalMs (Standard 1000)
+ */
+@ApplicationScoped
+public class HistoryWriter {
+
+    private static final Logger LOGGER = Logger.getLogger(HistoryWriter.class.getName());
+
+    @Inject
+    private HistoryOutboxRepository outboxRepository;
+
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final int batchSize = ConfigProperties.getInt("history.batchSize", 100);
+    private final long flushIntervalMs = ConfigProperties.getLong("history.flushIntervalMs", 1000);
+
+    // Seit dem letzten Flush committete Änderungen, löst bei batchSize einen vorgezogenen Flush aus
+    private final AtomicInteger unflushed = new AtomicInteger();
+
+    // Verhindert parallele Flushes
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledFuture<?> flushTask;
+
+    /**
+     * Startet den periodischen Flush, der auch beim letzten Herunterfahren offen gebliebene Einträge schreibt
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        long pending = outboxRepository.count();
+        if (pending > 0) {
+            LOGGER.info(() -> pending + " offene History-Einträge im Outbox");
+        }
+        flushTask = scheduler.scheduleWithFixedDelay(() -> backgroundExecutor.execute(this::flush),
+                flushIntervalMs, flushIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Zählt committete Änderungen und zieht den Flush vor, sobald ein Batch voll ist
+     * Der Eintrag selbst liegt bereits im Outbox; Löschungen brauchen keinen, die Historie wird mit der Notiz entfernt
+     */
+    void onNoteChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) NoteChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            return;
+        }
+        if (unflushed.incrementAndGet() >= batchSize) {
+            unflushed.set(0);
+            backgroundExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Schreibt alle anstehenden Einträge in Batches von höchstens batchSize
+     */
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            // Ein anderer Flush läuft bereits und übernimmt auch diese Einträge
+            return;
+        }
+        try {
+            unflushed.set(0);
+            // Notizen, deren Einträge in diesem Flush nicht geschrieben werden konnten
+            Set<Long> blockedNotes = new HashSet<>();
+            long afterId = 0;
+            List<HistoryOutboxEntry> batch;
+            while (!(batch = outboxRepository.findPending(afterId, batchSize)).isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+                List<HistoryOutboxEntry> writable = batch.stream()
+                        .filter(entry -> !blockedNotes.contains(entry.getNoteId()))
+                        .toList();
+                try {
+                    outboxRepository.write(writable.stream().map(HistoryOutboxEntry::getId).toList());
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "History-Batch konnte nicht geschrieben werden, Einträge werden einzeln geschrieben", e);
+                    writeSingly(writable, blockedNotes);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Fehler beim Schreiben der History", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der noch nicht geschriebenen Einträge
+     */
+    public long getPendingCount() {
+        return outboxRepository.count();
+    }
+
+    /**
+     * Schreibt beim Herunterfahren alle offenen Einträge, Reste bleiben im Outbox
+     */
+    @PreDestroy
+    void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        flush();
+    }
+
+    /**
+     * Schreibt jeden Eintrag in einer eigenen Transaktion
+     * Nach einem Fehler werden spätere Einträge derselben Notiz übersprungen, damit die Historie
+     * in der Reihenfolge der Änderungen bleibt
+     */
+    private void writeSingly(List<HistoryOutboxEntry> entries, Set<Long> blockedNotes) {
+        for (HistoryOutboxEntry entry : entries) {
+            if (blockedNotes.contains(entry.getNoteId())) {
+                continue;
+            }
+            try {
+                outboxRepository.write(List.of(entry.getId()));
+            } catch (RuntimeException e) {
+                blockedNotes.add(entry.getNoteId());
+                if (outboxRepository.recordFailure(entry.getId(), rootCause(e).toString())) {
+                    LOGGER.log(Level.SEVERE, "History-Eintrag " + entry.getId() + " für Notiz " + entry.getNoteId()
+                            + " nach wiederholten Fehlern aufgegeben (failedAt gesetzt)", e);
+                } else {
+                    LOGGER.log(Level.WARNING, "History-Eintrag " + entry.getId() + " für Notiz " + entry.getNoteId()
+                            + " konnte nicht geschrieben werden, erneuter Versuch beim nächsten Flush", e);
+                }
+            }
+        }
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
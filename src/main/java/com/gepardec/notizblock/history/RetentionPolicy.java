@@ -0,0 +1,22 @@
+package com.gepardec.notizblock.history;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aufbewahrungsregeln für die Historie einer Notiz
+ * Die neuesten keepLast Einträge werden nie entfernt. Ältere Einträge werden
+ * vor archiveBefore ins Archiv verschoben; aufeinanderfolgende UPDATED-Einträge vor
+ * collapseBefore werden auf den letzten Eintrag der Folge reduziert.
+ *
+ * @param keepLast       Anzahl der neuesten Einträge, die nie entfernt werden (mindestens 1)
+ * @param collapseBefore Einträge davor werden zusammengefasst
+ * @param archiveBefore  Einträge davor werden archiviert
+ */
+public record RetentionPolicy(int keepLast, LocalDateTime collapseBefore, LocalDateTime archiveBefore) {
+
+    public RetentionPolicy {
+        if (keepLast < 1) {
+            throw new IllegalArgumentException("keepLast muss mindestens 1 sein");
+        }
+    }
+}
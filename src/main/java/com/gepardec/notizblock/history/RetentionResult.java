@@ -0,0 +1,29 @@
+package com.gepardec.notizblock.history;
+
+/**
+ * Ergebnis der Aufbewahrungsregeln für eine Notiz
+ *
+ * @param archived  Anzahl der ins Archiv verschobenen Einträge
+ * @param collapsed Anzahl der beim Zusammenfassen entfernten Einträge
+ */
+public record RetentionResult(int archived, int collapsed) {
+
+    /**
+     * Ergebnis ohne Änderungen
+     */
+    public static final RetentionResult NONE = new RetentionResult(0, 0);
+
+    /**
+     * @return Summe beider Ergebnisse
+     */
+    public RetentionResult plus(RetentionResult other) {
+        return new RetentionResult(archived + other.archived, collapsed + other.collapsed);
+    }
+
+    /**
+     * @return true wenn Einträge archiviert oder entfernt wurden
+     */
+    public boolean changed() {
+        return archived > 0 || collapsed > 0;
+    }
+}
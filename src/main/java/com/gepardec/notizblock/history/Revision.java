@@ -0,0 +1,53 @@
+package com.gepardec.notizblock.history;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Rekonstruierter Stand einer Notiz zu einer bestimmten Revision
+ */
+public class Revision implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int number;
+    private final String title;
+    private final String content;
+    private final LocalDateTime changedAt;
+
+    public Revision(int number, String title, String content, LocalDateTime changedAt) {
+        this.number = number;
+        this.title = title;
+        this.content = content;
+        this.changedAt = changedAt;
+    }
+
+    // Getter
+
+    public int getNumber() {
+        return number;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Revision{" +
+                "number=" + number +
+                ", title='" + title + '\'' +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,198 @@
+package com.gepardec.notizblock.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Kodiert Revisionen einer Notiz als komprimierte Payload für NoteHistory
+ * Ein Snapshot enthält Titel und Inhalt vollständig. Ein Delta enthält den Titel und beim Inhalt nur den
+ * geänderten Mittelteil gegenüber der Vorgänger-Revision (Länge des gemeinsamen Anfangs und Endes plus
+ * eingefügter Text). Kleine Änderungen an langen Notizen ergeben so nur wenige Bytes.
+ * Ein Snapshot-Verweis enthält nur den Titel, der Inhalt liegt im content_store (NoteHistory.getBody()).
+ */
+public final class RevisionCodec {
+
+    private static final byte SNAPSHOT = 0;
+    private static final byte DELTA = 1;
+    private static final byte SNAPSHOT_REFERENCE = 2;
+
+    private RevisionCodec() {
+    }
+
+    /**
+     * Kodiert einen vollständigen Snapshot
+     */
+    public static byte[] encodeSnapshot(String title, String content) {
+        return write(out -> {
+            out.writeByte(SNAPSHOT);
+            writeString(out, title);
+            writeString(out, content);
+        });
+    }
+
+    /**
+     * Kodiert einen Snapshot, dessen Inhalt separat im content_store liegt
+     */
+    public static byte[] encodeSnapshotReference(String title) {
+        return write(out -> {
+            out.writeByte(SNAPSHOT_REFERENCE);
+            writeString(out, title);
+        });
+    }
+
+    /**
+     * Kodiert die Änderung gegenüber der Vorgänger-Revision
+     */
+    public static byte[] encodeDelta(String previousContent, String title, String content) {
+        String previous = previousContent != null ? previousContent : "";
+        String current = content != null ? content : "";
+
+        int maxCommon = Math.min(previous.length(), current.length());
+        int prefix = 0;
+        while (prefix < maxCommon && previous.charAt(prefix) == current.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < maxCommon - prefix
+                && previous.charAt(previous.length() - 1 - suffix) == current.charAt(current.length() - 1 - suffix)) {
+            suffix++;
+        }
+        // Ersatzpaare nicht zerteilen, damit der eingefügte Text gültiges UTF-16 bleibt
+        if (prefix > 0 && Character.isHighSurrogate(current.charAt(prefix - 1))) {
+            prefix--;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(current.charAt(current.length() - suffix))) {
+            suffix--;
+        }
+        int finalPrefix = prefix;
+        int finalSuffix = suffix;
+        String inserted = current.substring(prefix, current.length() - suffix);
+
+        return write(out -> {
+            out.writeByte(DELTA);
+            writeString(out, title);
+            out.writeInt(finalPrefix);
+            out.writeInt(finalSuffix);
+            writeString(out, inserted);
+        });
+    }
+
+    /**
+     * Prüft ob eine Payload ein vollständiger Snapshot ist (auch als Verweis)
+     */
+    public static boolean isSnapshot(byte[] payload) {
+        return read(payload, in -> in.readByte() != DELTA);
+    }
+
+    /**
+     * Prüft ob eine Payload ein Snapshot-Verweis ist, dessen Inhalt im content_store liegt
+     */
+    public static boolean isSnapshotReference(byte[] payload) {
+        return read(payload, in -> in.readByte() == SNAPSHOT_REFERENCE);
+    }
+
+    /**
+     * Dekodiert eine Payload zur vollständigen Revision
+     *
+     * @param payload   Die komprimierte Payload
+     * @param previous  Vorgänger-Revision (wird nur für Deltas benötigt)
+     * @param number    Nummer der Revision
+     * @param changedAt Zeitpunkt der Änderung
+     * @return Die rekonstruierte Revision
+     */
+    public static Revision decode(byte[] payload, Revision previous, int number, LocalDateTime changedAt) {
+        return decode(payload, null, previous, number, changedAt);
+    }
+
+    /**
+     * Dekodiert eine Payload zur vollständigen Revision, auch Snapshot-Verweise
+     *
+     * @param payload       Die komprimierte Payload
+     * @param storedContent Inhalt aus dem content_store (wird nur für Snapshot-Verweise benötigt)
+     * @param previous      Vorgänger-Revision (wird nur für Deltas benötigt)
+     * @param number        Nummer der Revision
+     * @param changedAt     Zeitpunkt der Änderung
+     * @return Die rekonstruierte Revision
+     */
+    public static Revision decode(byte[] payload, String storedContent, Revision previous, int number,
+                                  LocalDateTime changedAt) {
+        return read(payload, in -> {
+            byte type = in.readByte();
+            String title = readString(in);
+            if (type == SNAPSHOT) {
+                return new Revision(number, title, readString(in), changedAt);
+            }
+            if (type == SNAPSHOT_REFERENCE) {
+                if (storedContent == null) {
+                    throw new IllegalStateException("Snapshot-Verweis ohne Inhalt aus dem content_store");
+                }
+                return new Revision(number, title, storedContent, changedAt);
+            }
+            if (previous == null) {
+                throw new IllegalStateException("Delta ohne Vorgänger-Revision kann nicht angewendet werden");
+            }
+            String previousContent = previous.getContent() != null ? previous.getContent() : "";
+            int prefix = in.readInt();
+            int suffix = in.readInt();
+            String inserted = readString(in);
+            String content = previousContent.substring(0, prefix)
+                    + inserted
+                    + previousContent.substring(previousContent.length() - suffix);
+            return new Revision(number, title, content, changedAt);
+        });
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] write(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T read(byte[] payload, Reader<T> reader) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            return reader.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ungültige Revisions-Payload", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -0,0 +1,74 @@
+package com.gepardec.notizblock.metrics;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Liest die Pool-Statistiken der DataSource NotizblockDS aus dem WildFly-Management (JMX)
+ * Die Werte sind nur verfügbar, wenn die Statistiken aktiviert sind
+ * (z.B. Start mit -Dwildfly.statistics-enabled=true), sonst bleibt das Ergebnis leer.
+ */
+@ApplicationScoped
+public class DataSourcePoolStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger(DataSourcePoolStatistics.class.getName());
+
+    private static final String POOL_NAME = "NotizblockDS";
+
+    // JMX-Attribut -> Name der Metrik
+    private static final Map<String, String> ATTRIBUTES = Map.of(
+            "ActiveCount", "connections_active",
+            "InUseCount", "connections_in_use",
+            "AvailableCount", "connections_available",
+            "WaitCount", "connections_waiting",
+            "AverageBlockingTime", "wait_average_ms",
+            "MaxWaitTime", "wait_max_ms",
+            "TotalBlockingTime", "wait_total_ms",
+            "TimedOut", "timeouts");
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+    /**
+     * @return Metrikname -> aktueller Wert, leer wenn keine Statistiken verfügbar sind
+     */
+    public Map<String, Number> read() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        try {
+            ObjectName pool = findPool();
+            if (pool == null) {
+                return values;
+            }
+            ATTRIBUTES.entrySet().stream().sorted(Map.Entry.comparingByValue()).forEach(attribute -> {
+                try {
+                    if (server.getAttribute(pool, attribute.getKey()) instanceof Number number) {
+                        values.put(attribute.getValue(), number);
+                    }
+                } catch (JMException e) {
+                    // Attribut in dieser WildFly-Version nicht vorhanden
+                }
+            });
+        } catch (JMException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Pool-Statistiken konnten nicht gelesen werden", e);
+        }
+        return values;
+    }
+
+    private ObjectName findPool() throws JMException {
+        // Als Deployment (notizblock-ds.xml) oder im Subsystem konfiguriert
+        Set<ObjectName> pools = server.queryNames(
+                new ObjectName("jboss.as:subsystem=datasources,statistics=pool,*"), null);
+        return pools.stream()
+                .filter(name -> String.valueOf(name.getKeyProperty("data-source")).contains(POOL_NAME))
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,49 @@
+package com.gepardec.notizblock.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latenz-Histogramm mit festen Bucket-Grenzen (in Sekunden, wie bei Prometheus üblich)
+ * Thread-safe und ohne Sperren, die Buckets werden erst bei der Ausgabe kumuliert
+ */
+class Histogram {
+
+    static final double[] BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        double seconds = nanos / 1_000_000_000.0;
+        int bucket = 0;
+        while (bucket < BUCKETS.length && seconds > BUCKETS[bucket]) {
+            bucket++;
+        }
+        counts[bucket].increment();
+        sum.add(seconds);
+    }
+
+    /**
+     * @return Kumulierte Anzahl je Bucket, der letzte Eintrag entspricht +Inf (= Gesamtanzahl)
+     */
+    long[] cumulativeCounts() {
+        long[] cumulative = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i].sum();
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    double sum() {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,58 @@
+package com.gepardec.notizblock.metrics;
+
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.faces.component.UIViewRoot;
+import jakarta.faces.context.FacesContext;
+import jakarta.faces.event.PhaseEvent;
+import jakarta.faces.event.PhaseId;
+import jakarta.faces.event.PhaseListener;
+
+import java.io.Serial;
+import java.util.Map;
+
+/**
+ * Misst die Dauer jedes JSF-Requests und seiner Render-Phase je View
+ * Registriert in faces-config.xml
+ */
+public class JsfMetricsPhaseListener implements PhaseListener {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final String REQUEST_START = JsfMetricsPhaseListener.class.getName() + ".requestStart";
+    private static final String RENDER_START = JsfMetricsPhaseListener.class.getName() + ".renderStart";
+
+    @Override
+    public void beforePhase(PhaseEvent event) {
+        Map<Object, Object> attributes = event.getFacesContext().getAttributes();
+        if (event.getPhaseId() == PhaseId.RESTORE_VIEW) {
+            attributes.put(REQUEST_START, System.nanoTime());
+        } else if (event.getPhaseId() == PhaseId.RENDER_RESPONSE) {
+            attributes.put(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterPhase(PhaseEvent event) {
+        FacesContext context = event.getFacesContext();
+        // Ende des Requests: nach dem Rendern oder wenn ein Redirect/Download die Antwort abschließt
+        if (event.getPhaseId() != PhaseId.RENDER_RESPONSE && !context.getResponseComplete()) {
+            return;
+        }
+        Long requestStart = (Long) context.getAttributes().remove(REQUEST_START);
+        if (requestStart == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        Long renderStart = (Long) context.getAttributes().remove(RENDER_START);
+        UIViewRoot viewRoot = context.getViewRoot();
+        String viewId = viewRoot != null && viewRoot.getViewId() != null ? viewRoot.getViewId() : "unbekannt";
+        CDI.current().select(MetricsRegistry.class).get()
+                .recordJsfRequest(viewId, now - requestStart, renderStart != null ? now - renderStart : 0);
+    }
+
+    @Override
+    public PhaseId getPhaseId() {
+        return PhaseId.ANY_PHASE;
+    }
+}
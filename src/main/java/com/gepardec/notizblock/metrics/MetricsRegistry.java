@@ -0,0 +1,161 @@
+package com.gepardec.notizblock.metrics;
+
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.history.HistoryWriter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sammelt Laufzeit-Metriken der Anwendung und gibt sie im Prometheus-Textformat aus
+ * - Aufrufe von @Monitored-Beans: Latenz-Histogramm, Fehler, zurückgegebene Zeilen
+ * - JSF-Requests je View: Gesamtdauer und Dauer der Render-Phase
+ * - Connection-Pool der DataSource (Wartezeiten, belegte Verbindungen)
+ * - Anzahl noch nicht geschriebener History-Einträge
+ * - Laufende und wartende Aufgaben im BackgroundExecutor
+ */
+@ApplicationScoped
+public class MetricsRegistry {
+
+    private final ConcurrentMap<MethodKey, MethodMetrics> methods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> jsfRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Histogram> jsfRenders = new ConcurrentHashMap<>();
+
+    @Inject
+    private DataSourcePoolStatistics poolStatistics;
+
+    @Inject
+    private HistoryWriter historyWriter;
+
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    /**
+     * Erfasst einen Methodenaufruf
+     *
+     * @param component Name der Bean (einfacher Klassenname)
+     * @param method    Name der Methode
+     * @param nanos     Dauer in Nanosekunden
+     * @param failed    true, wenn eine Exception geworfen wurde
+     * @param rows      Anzahl zurückgegebener Zeilen oder -1, wenn nicht zutreffend
+     */
+    public void recordInvocation(String component, String method, long nanos, boolean failed, int rows) {
+        MethodMetrics metrics = methods.computeIfAbsent(new MethodKey(component, method), key -> new MethodMetrics());
+        metrics.duration.record(nanos);
+        if (failed) {
+            metrics.errors.increment();
+        }
+        if (rows >= 0) {
+            metrics.rows.add(rows);
+        }
+    }
+
+    /**
+     * Erfasst einen JSF-Request
+     *
+     * @param viewId      View-ID (z.B. /index.xhtml)
+     * @param totalNanos  Dauer des gesamten Lebenszyklus
+     * @param renderNanos Dauer der Render-Phase (0, wenn nicht gerendert wurde)
+     */
+    public void recordJsfRequest(String viewId, long totalNanos, long renderNanos) {
+        jsfRequests.computeIfAbsent(viewId, key -> new Histogram()).record(totalNanos);
+        if (renderNanos > 0) {
+            jsfRenders.computeIfAbsent(viewId, key -> new Histogram()).record(renderNanos);
+        }
+    }
+
+    /**
+     * @return Alle Metriken im Prometheus-Textformat (Version 0.0.4)
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+
+        Map<MethodKey, MethodMetrics> sortedMethods = new TreeMap<>(methods);
+        header(out, "notizblock_method_duration_seconds", "histogram", "Dauer der Aufrufe von Repositories und Beans");
+        sortedMethods.forEach((key, metrics) -> histogram(out, "notizblock_method_duration_seconds", key.labels(), metrics.duration));
+        header(out, "notizblock_method_errors_total", "counter", "Aufrufe, die mit einer Exception endeten");
+        sortedMethods.forEach((key, metrics) -> sample(out, "notizblock_method_errors_total", key.labels(), metrics.errors.sum()));
+        header(out, "notizblock_method_rows_total", "counter", "Von Abfragen zurückgegebene Zeilen");
+        sortedMethods.forEach((key, metrics) -> sample(out, "notizblock_method_rows_total", key.labels(), metrics.rows.sum()));
+
+        header(out, "notizblock_jsf_request_duration_seconds", "histogram", "Dauer des JSF-Lebenszyklus je View");
+        new TreeMap<>(jsfRequests).forEach((view, histogram) ->
+                histogram(out, "notizblock_jsf_request_duration_seconds", viewLabel(view), histogram));
+        header(out, "notizblock_jsf_render_duration_seconds", "histogram", "Dauer der Render-Phase je View");
+        new TreeMap<>(jsfRenders).forEach((view, histogram) ->
+                histogram(out, "notizblock_jsf_render_duration_seconds", viewLabel(view), histogram));
+
+        poolStatistics.read().forEach((attribute, value) -> {
+            String name = "notizblock_datasource_" + attribute;
+            header(out, name, "gauge", "Connection-Pool NotizblockDS");
+            sample(out, name, "", value);
+        });
+
+        header(out, "notizblock_history_pending", "gauge", "Noch nicht geschriebene History-Einträge");
+        sample(out, "notizblock_history_pending", "", historyWriter.getPendingCount());
+
+        String modeLabel = "mode=\"" + backgroundExecutor.getMode().name().toLowerCase(Locale.ROOT) + "\"";
+        header(out, "notizblock_background_active", "gauge", "Laufende Aufgaben im BackgroundExecutor");
+        sample(out, "notizblock_background_active", modeLabel, backgroundExecutor.getActiveCount());
+        header(out, "notizblock_background_waiting", "gauge", "Aufgaben, die auf eine freie Stelle warten (maxConcurrency)");
+        sample(out, "notizblock_background_waiting", modeLabel, backgroundExecutor.getWaitingCount());
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void histogram(StringBuilder out, String name, String labels, Histogram histogram) {
+        long[] cumulative = histogram.cumulativeCounts();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (int i = 0; i < Histogram.BUCKETS.length; i++) {
+            sample(out, name + "_bucket", prefix + "le=\"" + Histogram.BUCKETS[i] + "\"", cumulative[i]);
+        }
+        sample(out, name + "_bucket", prefix + "le=\"+Inf\"", cumulative[cumulative.length - 1]);
+        sample(out, name + "_sum", labels, histogram.sum());
+        sample(out, name + "_count", labels, cumulative[cumulative.length - 1]);
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Number value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String viewLabel(String viewId) {
+        return "view=\"" + escape(viewId) + "\"";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record MethodKey(String component, String method) implements Comparable<MethodKey> {
+
+        String labels() {
+            return "component=\"" + escape(component) + "\",method=\"" + escape(method) + "\"";
+        }
+
+        @Override
+        public int compareTo(MethodKey other) {
+            int result = component.compareTo(other.component);
+            return result != 0 ? result : method.compareTo(other.method);
+        }
+    }
+
+    private static final class MethodMetrics {
+        private final Histogram duration = new Histogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+    }
+}
@@ -0,0 +1,90 @@
+package com.gepardec.notizblock.metrics;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Misst Aufrufe von @Monitored-Beans und meldet sie an die MetricsRegistry
+ * Aufrufe über dem Schwellwert notizblock.metrics.slowThresholdMs (Standard 500) werden als WARNING geloggt.
+ * Serializable, da das Interceptor-Binding auch an @ViewScoped-Beans hängt.
+ */
+@Monitored
+@Interceptor
+@Priority(Interceptor.Priority.APPLICATION)
+public class MonitoredInterceptor implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger("com.gepardec.notizblock.SLOW");
+
+    private static final long SLOW_THRESHOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(ConfigProperties.getLong("metrics.slowThresholdMs", 500));
+
+    // Maximale Länge eines Arguments im Slow-Log
+    private static final int MAX_ARGUMENT_LENGTH = 50;
+
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
+    @AroundInvoke
+    Object measure(InvocationContext context) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = context.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            String component = componentName(context);
+            String method = context.getMethod().getName();
+            metricsRegistry.recordInvocation(component, method, nanos, failed, rows(result));
+            if (nanos >= SLOW_THRESHOLD_NANOS) {
+                String outcome = failed ? " (fehlgeschlagen)" : "";
+                LOGGER.warning(() -> "Langsamer Aufruf " + component + "." + method + "("
+                        + describe(context.getParameters()) + "): " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms"
+                        + outcome);
+            }
+        }
+    }
+
+    private static String componentName(InvocationContext context) {
+        // Bei Proxys/Unterklassen den Namen der deklarierenden Bean verwenden
+        return context.getMethod().getDeclaringClass().getSimpleName();
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private static String describe(Object[] parameters) {
+        if (parameters == null) {
+            return "";
+        }
+        return Arrays.stream(parameters)
+                .map(String::valueOf)
+                .map(value -> value.length() > MAX_ARGUMENT_LENGTH ? value.substring(0, MAX_ARGUMENT_LENGTH) + "..." : value)
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,86 @@
+package com.gepardec.notizblock.migration;
+
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.interceptor.Interceptor;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.SessionFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Führt beim Start die Schema-Migrationen aus und prüft danach das Schema
+ * Läuft vor allen anderen Startup-Observern (Sequenzabgleich, Suchindex, History-Outbox),
+ * da diese bereits auf die Tabellen zugreifen. Schlägt Migration oder Prüfung fehl,
+ * bricht das Deployment ab, statt mit einem unpassenden Schema weiterzulaufen.
+ */
+@ApplicationScoped
+public class SchemaMigration {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigration.class.getName());
+
+    // Speichereinstellungen der Datenbank, die beim Start protokolliert werden
+    private static final List<String> LOGGED_SETTINGS = List.of(
+            "CACHE_SIZE", "COMPRESS", "MAX_COMPACT_TIME", "AUTO_COMPACT_FILL_RATE", "info.FILE_SIZE");
+
+    @Resource(lookup = "java:jboss/datasources/NotizblockDS")
+    private DataSource dataSource;
+
+    @PersistenceUnit(unitName = "NotizblockPU")
+    private EntityManagerFactory entityManagerFactory;
+
+    void onStartup(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE)
+                   @Initialized(ApplicationScoped.class) Object event) {
+        SchemaMigrator migrator = new SchemaMigrator();
+        try (Connection connection = dataSource.getConnection()) {
+            int applied = migrator.migrate(connection);
+            LOGGER.info(() -> "Schema auf Version " + migrator.latestVersion() + " ("
+                    + applied + " Migrationen angewendet)");
+            checkIndexes(migrator, connection);
+            logStorageSettings(connection);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schema-Migration fehlgeschlagen", e);
+        }
+        // Tabellen und Spalten gegen die Entity-Mappings prüfen (ersetzt hbm2ddl validate)
+        entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager().validateMappedObjects();
+    }
+
+    private static void checkIndexes(SchemaMigrator migrator, Connection connection) throws SQLException {
+        List<String> missing = new ArrayList<>();
+        missing.addAll(migrator.missingIndexes(connection, "notes",
+                "idx_notes_created_at_id", "idx_notes_title"));
+        missing.addAll(migrator.missingIndexes(connection, "note_history",
+                "idx_note_history_note_changed_at", "uq_note_history_note_revision"));
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Fehlende Indizes: " + missing);
+        }
+    }
+
+    private static void logStorageSettings(Connection connection) throws SQLException {
+        StringBuilder settings = new StringBuilder();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = ?")) {
+            for (String name : LOGGED_SETTINGS) {
+                statement.setString(1, name);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        settings.append(settings.isEmpty() ? "" : ", ")
+                                .append(name).append('=').append(resultSet.getString(1));
+                    }
+                }
+            }
+        }
+        LOGGER.info(() -> "H2-Speicher: " + settings);
+    }
+}
@@ -0,0 +1,218 @@
+package com.gepardec.notizblock.migration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Versionierte Schema-Migrationen auf Basis von SQL-Skripten unter db/migration
+ * Angewendete Versionen stehen mit Prüfsumme in der Tabelle schema_version. Jedes Skript läuft
+ * genau einmal; wurde ein bereits angewendetes Skript nachträglich verändert oder ist die Datenbank
+ * neuer als die Anwendung, bricht die Migration ab.
+ * Reines JDBC ohne Container, damit auch die Benchmarks dasselbe Schema aufbauen können.
+ */
+public final class SchemaMigrator {
+
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final String LOCATION = "db/migration/";
+
+    /**
+     * Alle Migrationen in Reihenfolge, Dateiname V<version>__<beschreibung>.sql
+     * Neue Skripte nur anhängen, vorhandene nie ändern
+     */
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__initial_schema.sql",
+            "V2__indexes.sql",
+            "V3__history_archive.sql",
+            "V4__statistics.sql",
+            "V5__large_content.sql",
+            "V6__content_store.sql");
+
+    private static final String VERSION_TABLE = "schema_version";
+
+    /**
+     * Bringt das Schema auf den neuesten Stand
+     *
+     * @param connection Verbindung zur Datenbank (Auto-Commit wird für die Dauer der Migration abgeschaltet)
+     * @return Anzahl der neu angewendeten Migrationen
+     */
+    public int migrate(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            createVersionTable(connection);
+            Map<Integer, Long> applied = appliedVersions(connection);
+
+            int latest = latestVersion();
+            int newest = applied.keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+            if (newest > latest) {
+                throw new IllegalStateException("Datenbank hat Schema-Version " + newest
+                        + ", die Anwendung kennt nur bis " + latest);
+            }
+
+            int count = 0;
+            for (String name : MIGRATIONS) {
+                int version = version(name);
+                String script = read(name);
+                long checksum = checksum(script);
+                Long appliedChecksum = applied.get(version);
+                if (appliedChecksum != null) {
+                    if (appliedChecksum != checksum) {
+                        throw new IllegalStateException("Migration " + name
+                                + " wurde nach dem Anwenden verändert (Prüfsumme weicht ab)");
+                    }
+                    continue;
+                }
+                apply(connection, version, name, script, checksum);
+                count++;
+            }
+            return count;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * @return Die neueste Version, die diese Anwendung kennt
+     */
+    public int latestVersion() {
+        return version(MIGRATIONS.get(MIGRATIONS.size() - 1));
+    }
+
+    /**
+     * Prüft, ob alle angegebenen Indizes vorhanden sind
+     *
+     * @param connection Verbindung zur Datenbank
+     * @param table      Tabellenname
+     * @param indexNames Erwartete Indexnamen
+     * @return Namen der fehlenden Indizes (leer wenn alle vorhanden sind)
+     */
+    public List<String> missingIndexes(Connection connection, String table, String... indexNames)
+            throws SQLException {
+        List<String> missing = new ArrayList<>();
+        List<String> present = new ArrayList<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, table.toUpperCase(Locale.ROOT), false, true)) {
+            while (indexes.next()) {
+                String name = indexes.getString("INDEX_NAME");
+                if (name != null) {
+                    present.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        for (String indexName : indexNames) {
+            if (!present.contains(indexName.toLowerCase(Locale.ROOT))) {
+                missing.add(indexName);
+            }
+        }
+        return missing;
+    }
+
+    private void apply(Connection connection, int version, String name, String script, long checksum)
+            throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements(script)) {
+                statement.execute(sql);
+            }
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + VERSION_TABLE
+                    + " (version, script, checksum, installedAt) VALUES (?, ?, ?, ?)")) {
+                insert.setInt(1, version);
+                insert.setString(2, name);
+                insert.setLong(3, checksum);
+                insert.setObject(4, LocalDateTime.now());
+                insert.executeUpdate();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            // DDL committet in H2 implizit, ein Fehler mitten im Skript muss von Hand bereinigt werden
+            connection.rollback();
+            throw new IllegalStateException("Migration " + name + " ist fehlgeschlagen", e);
+        }
+        long durationMs = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info(() -> "Migration " + name + " angewendet (" + durationMs + " ms)");
+    }
+
+    private static void createVersionTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " ("
+                    + "version INTEGER NOT NULL PRIMARY KEY, "
+                    + "script VARCHAR(255) NOT NULL, "
+                    + "checksum BIGINT NOT NULL, "
+                    + "installedAt TIMESTAMP(6) NOT NULL)");
+        }
+        connection.commit();
+    }
+
+    private static Map<Integer, Long> appliedVersions(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + VERSION_TABLE)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt(1), resultSet.getLong(2));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Zerlegt ein Skript an Semikolons am Zeilenende, Kommentarzeilen werden entfernt
+     */
+    static List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                statements.add(current.substring(0, current.lastIndexOf(";")));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString());
+        }
+        return statements;
+    }
+
+    private static int version(String name) {
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    private static String read(String name) {
+        try (InputStream input = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Migration " + LOCATION + name + " nicht gefunden");
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Migration " + name + " konnte nicht gelesen werden", e);
+        }
+    }
+
+    static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        // Zeilenenden vereinheitlichen, damit ein Checkout mit CRLF dieselbe Prüfsumme ergibt
+        crc.update(script.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,60 @@
+package com.gepardec.notizblock.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Änderungszähler eines Tages für das Statistik-Dashboard
+ */
+public class DailyStatistics implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final LocalDate date;
+    private final long created;
+    private final long updated;
+    private final long deleted;
+
+    /**
+     * @param date    Der Tag
+     * @param created Anzahl erstellter Notizen
+     * @param updated Anzahl Änderungen (Bearbeiten, Wiederherstellen, Konfliktlösung)
+     * @param deleted Anzahl gelöschter Notizen
+     */
+    public DailyStatistics(LocalDate date, long created, long updated, long deleted) {
+        this.date = date;
+        this.created = created;
+        this.updated = updated;
+        this.deleted = deleted;
+    }
+
+    // Getter
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "DailyStatistics{" +
+                "date=" + date +
+                ", created=" + created +
+                ", updated=" + updated +
+                ", deleted=" + deleted +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.gepardec.notizblock.model;
+
+import com.gepardec.notizblock.entity.ChangeType;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Schlanke, read-only Projektion eines History-Eintrags für die Timeline
+ * Enthält nicht die Payload, nur ob eine vorhanden ist (die Revision also rekonstruiert werden kann)
+ */
+public class HistoryEntrySummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+    private final int revision;
+    private final ChangeType changeType;
+    private final LocalDateTime changedAt;
+    private final boolean hasPayload;
+
+    /**
+     * Constructor für JPQL Constructor Expressions
+     *
+     * @param id         ID des History-Eintrags
+     * @param revision   Revisionsnummer
+     * @param changeType Art der Änderung
+     * @param changedAt  Zeitpunkt der Änderung
+     * @param hasPayload true wenn eine Payload gespeichert ist
+     */
+    public HistoryEntrySummary(Long id, int revision, ChangeType changeType, LocalDateTime changedAt,
+                               boolean hasPayload) {
+        this.id = id;
+        this.revision = revision;
+        this.changeType = changeType;
+        this.changedAt = changedAt;
+        this.hasPayload = hasPayload;
+    }
+
+    // Getter
+
+    public Long getId() {
+        return id;
+    }
+
+    public int getRevision() {
+        return revision;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public boolean isHasPayload() {
+        return hasPayload;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryEntrySummary{" +
+                "id=" + id +
+                ", revision=" + revision +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
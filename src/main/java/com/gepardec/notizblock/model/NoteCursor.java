@@ -0,0 +1,18 @@
+package com.gepardec.notizblock.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Cursor für die Keyset-Pagination der Notizen
+ * Beschreibt eine eindeutige Position in der Sortierung (createdAt DESC, id DESC)
+ *
+ * @param createdAt Erstellungsdatum der Notiz an der Cursor-Position
+ * @param id        ID der Notiz an der Cursor-Position (eindeutiger Tie-Breaker)
+ */
+public record NoteCursor(LocalDateTime createdAt, Long id) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,21 @@
+package com.gepardec.notizblock.model;
+
+import com.gepardec.notizblock.entity.ChangeType;
+
+import java.time.LocalDateTime;
+
+/**
+ * History-Eintrag als flacher Datensatz für Import und Export
+ * Der Payload wird unverändert übernommen (Snapshot oder Delta, siehe RevisionCodec)
+ *
+ * @param id         ID des Eintrags (wird beim Import übernommen)
+ * @param noteId     ID der zugehörigen Notiz
+ * @param changeType Typ der Änderung
+ * @param changedAt  Zeitpunkt der Änderung
+ * @param revision   Revisionsnummer innerhalb der Notiz
+ * @param snapshot   true, wenn der Payload ein vollständiger Snapshot ist
+ * @param payload    Kodierte Revision (kann leer sein)
+ */
+public record NoteHistoryRecord(Long id, Long noteId, ChangeType changeType, LocalDateTime changedAt,
+                                int revision, boolean snapshot, byte[] payload) {
+}
@@ -0,0 +1,16 @@
+package com.gepardec.notizblock.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notiz als flacher Datensatz für Import und Export
+ *
+ * @param id        ID der Notiz (wird beim Import übernommen)
+ * @param version   Versionsnummer für Optimistic Locking
+ * @param title     Titel
+ * @param content   Inhalt
+ * @param createdAt Erstellungszeitpunkt
+ * @param updatedAt Zeitpunkt der letzten Änderung
+ */
+public record NoteRecord(Long id, long version, String title, String content, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
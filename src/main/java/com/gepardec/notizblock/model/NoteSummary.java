@@ -0,0 +1,112 @@
+package com.gepardec.notizblock.model;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Schlanke, read-only Projektion einer Notiz für Listenansichten
+ * Enthält statt des vollständigen Inhalts nur die Vorschau aus der Spalte notes.preview
+ */
+public class NoteSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Länge der Inhaltsvorschau in Zeichen
+     */
+    public static final int PREVIEW_LENGTH = 100;
+
+    private final Long id;
+    private final String title;
+    private final String preview;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    /**
+     * Constructor für JPQL Constructor Expressions
+     * Die Vorschau hat PREVIEW_LENGTH + 1 Zeichen, damit erkannt wird ob gekürzt wurde
+     *
+     * @param id        ID der Notiz
+     * @param title     Titel der Notiz
+     * @param preview   Anfang des Inhalts (bis PREVIEW_LENGTH + 1 Zeichen)
+     * @param createdAt Erstellungsdatum
+     * @param updatedAt Letztes Änderungsdatum
+     */
+    public NoteSummary(Long id, String title, String preview, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.preview = truncate(preview);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Berechnet den Wert der Spalte notes.preview: die ersten PREVIEW_LENGTH + 1 Zeichen des Inhalts
+     *
+     * @param content Vollständiger Inhalt
+     * @return Anfang des Inhalts oder null
+     */
+    public static String previewOf(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH + 1) {
+            return content;
+        }
+        return content.substring(0, PREVIEW_LENGTH + 1);
+    }
+
+    private static String truncate(String content) {
+        if (content == null) {
+            return "";
+        }
+        if (content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, PREVIEW_LENGTH) + "...";
+    }
+
+    // Getter
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NoteSummary that = (NoteSummary) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "NoteSummary{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
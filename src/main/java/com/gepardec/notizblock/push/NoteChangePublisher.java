@@ -0,0 +1,148 @@
+package com.gepardec.notizblock.push;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.faces.push.Push;
+import jakarta.faces.push.PushContext;
+import jakarta.inject.Inject;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Verteilt committete Änderungen an Notizen per WebSocket (Kanal "notes") an alle offenen Übersichten
+ * Die Clients passen nur die betroffenen Zeilen an, statt die ganze Liste neu abzufragen.
+ * Änderungen werden gesammelt und höchstens alle intervalMs als eine Nachricht verschickt,
+ * damit z.B. ein Bulk-Delete nicht tausende Einzelnachrichten erzeugt.
+ *
+ * Nachricht: {"count": Anzahl aller Notizen, "changes": [{"id", "type", "title", "preview", "createdAt"}, ...]}
+ *
+ * Konfiguration (System-Properties):
+ * notizblock.push.intervalMs (Standard 200)
+ */
+@ApplicationScoped
+public class NoteChangePublisher {
+
+    private static final Logger LOGGER = Logger.getLogger(NoteChangePublisher.class.getName());
+
+    // Gleiches Format wie in der Tabelle
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+
+    @Inject
+    @Push(channel = "notes")
+    private PushContext pushContext;
+
+    @Inject
+    private NoteReadModel noteReadModel;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final long intervalMs = ConfigProperties.getLong("push.intervalMs", 200);
+
+    // Noch nicht verschickte Änderungen, pro Notiz nur der letzte Stand (Zugriff nur mit pendingLock)
+    private final Map<Long, NoteChangedEvent> pending = new LinkedHashMap<>();
+
+    // Lock statt Monitor, hält die virtuellen Threads der Aufrufer nicht am Träger fest
+    private final ReentrantLock pendingLock = new ReentrantLock();
+
+    private ScheduledFuture<?> publishTask;
+
+    /**
+     * Startet den periodischen Versand
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        publishTask = scheduler.scheduleWithFixedDelay(this::publish, intervalMs, intervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Nimmt eine committete Änderung entgegen
+     */
+    void onNoteChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) NoteChangedEvent event) {
+        pendingLock.lock();
+        try {
+            NoteChangedEvent change = event;
+            NoteChangedEvent previous = pending.remove(event.noteId());
+            if (previous != null && previous.changeType() == ChangeType.CREATED
+                    && event.changeType() != ChangeType.DELETED) {
+                // Neu angelegt und im selben Intervall geändert bleibt für die Clients "neu"
+                change = new NoteChangedEvent(event.noteId(), ChangeType.CREATED, event.title(),
+                        event.content(), event.createdAt(), event.updatedAt(), event.changedAt());
+            }
+            pending.put(event.noteId(), change);
+        } finally {
+            pendingLock.unlock();
+        }
+    }
+
+    /**
+     * Verschickt alle gesammelten Änderungen als eine Nachricht
+     */
+    void publish() {
+        List<NoteChangedEvent> changes;
+        pendingLock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new ArrayList<>(pending.values());
+            pending.clear();
+        } finally {
+            pendingLock.unlock();
+        }
+        try {
+            Map<String, Object> message = new LinkedHashMap<>();
+            // Einmal pro Nachricht zählen statt einmal pro Client
+            message.put("count", noteReadModel.count());
+            message.put("changes", changes.stream().map(NoteChangePublisher::toMessage).toList());
+            pushContext.send(message);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Änderungen konnten nicht an die Clients verschickt werden", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (publishTask != null) {
+            publishTask.cancel(false);
+        }
+    }
+
+    private static Map<String, Object> toMessage(NoteChangedEvent event) {
+        Map<String, Object> change = new LinkedHashMap<>();
+        change.put("id", event.noteId());
+        change.put("type", switch (event.changeType()) {
+            case CREATED -> "created";
+            case DELETED -> "deleted";
+            default -> "updated";
+        });
+        if (event.changeType() != ChangeType.DELETED) {
+            // Vorschau wie in der Listenansicht kürzen
+            NoteSummary summary = new NoteSummary(event.noteId(), event.title(), event.content(),
+                    event.createdAt(), event.updatedAt());
+            change.put("title", summary.getTitle());
+            change.put("preview", summary.getPreview());
+            change.put("createdAt", event.createdAt() != null ? DATE_FORMAT.format(event.createdAt()) : "");
+        }
+        return change;
+    }
+}
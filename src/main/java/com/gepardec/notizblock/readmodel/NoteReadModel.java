@@ -0,0 +1,480 @@
+package com.gepardec.notizblock.readmodel;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.NoteCursor;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.repository.NoteRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Lesemodell der Notizliste: alle NoteSummary-Einträge sortiert im Speicher
+ * Übersicht, "Mehr laden"-Liste, REST-Liste und WebSocket-Updates lesen Seiten, Sortierung, Titelfilter
+ * und Anzahl von hier statt aus der Datenbank. Aufgebaut wird das Modell beim Start, danach wie der
+ * Suchindex über NoteChangedEvents nach erfolgreichem Commit aktualisiert.
+ *
+ * Lesende Zugriffe laufen ohne Sperre auf ConcurrentSkipListMaps (nach createdAt/id und title/id),
+ * Änderungen werden untereinander serialisiert. Ein Event, das älter ist als der gespeicherte Stand
+ * (updatedAt), wird ignoriert, da Events paralleler Transaktionen in beliebiger Reihenfolge ankommen.
+ * Gelöschte Notizen bleiben TOMBSTONE_RETENTION lang mit dem Zeitpunkt der Löschung vermerkt, ein danach
+ * eintreffendes älteres Event legt sie nicht wieder an. Betrifft eine Änderung eine Notiz, die das Modell
+ * weder kennt noch als gelöscht vermerkt hat, wird ihr Stand aus der Datenbank übernommen.
+ *
+ * Speicher: pro Notiz Titel und höchstens PREVIEW_LENGTH Zeichen Vorschau. Mehr als maxNotes Notizen
+ * werden nicht gehalten, dann beantwortet das NoteRepository alle Anfragen. verify() vergleicht das
+ * Modell mit der Datenbank und ersetzt es bei Abweichungen (z.B. nach JDBC-Änderungen an den Events
+ * vorbei), es schaltet das Modell auch wieder ein, sobald die Notizen wieder unter maxNotes liegen.
+ * Periodisch aufgerufen wird es vom ReadModelVerificationJob.
+ *
+ * Konfiguration (System-Properties):
+ * notizblock.readModel.enabled (Standard true), notizblock.readModel.maxNotes (Standard 200000)
+ */
+@ApplicationScoped
+public class NoteReadModel {
+
+    private static final Logger LOGGER = Logger.getLogger(NoteReadModel.class.getName());
+
+    // Anzahl der Notizen, die beim Aufbau pro Abfrage gelesen werden
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Mindestdauer, für die gelöschte Notizen vermerkt bleiben, und Abstand, in dem ältere Vermerke entfernt werden
+    private static final Duration TOMBSTONE_RETENTION = Duration.ofMinutes(10);
+    private static final Duration TOMBSTONE_PRUNE_INTERVAL = Duration.ofMinutes(1);
+
+    private static final String TITLE_FIELD = "title";
+    private static final String CREATED_AT_FIELD = "createdAt";
+
+    // Gleiche Reihenfolgen wie ORDER BY im NoteRepository, die ID macht die Schlüssel eindeutig
+    private static final Comparator<NoteSummary> BY_CREATED_AT =
+            Comparator.comparing(NoteSummary::getCreatedAt).thenComparing(NoteSummary::getId);
+    private static final Comparator<NoteSummary> BY_TITLE =
+            Comparator.comparing(NoteSummary::getTitle).thenComparing(NoteSummary::getId);
+
+    @Inject
+    private NoteRepository noteRepository;
+
+    private final boolean enabled = ConfigProperties.getBoolean("readModel.enabled", true);
+    private final int maxNotes = ConfigProperties.getInt("readModel.maxNotes", 200_000);
+
+    // Serialisiert Änderungen und das Umschalten auf ein neu aufgebautes Modell
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Verhindert parallele Neuaufbauten
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Aktuelles Modell, null solange es nicht geladen oder wegen maxNotes abgeschaltet ist
+    private volatile Index index;
+
+    // Änderungen, die während eines Neuaufbaus eintreffen und danach nachgezogen werden
+    private List<NoteChangedEvent> pendingChanges;
+
+    /**
+     * Baut das Modell beim Start der Anwendung auf
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (!enabled) {
+            LOGGER.info("Lesemodell der Notizliste ist deaktiviert, Listen werden aus der Datenbank gelesen");
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Übernimmt eine Änderung, sobald die Transaktion erfolgreich abgeschlossen ist
+     */
+    void onNoteChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) NoteChangedEvent event) {
+        // Außerhalb der Sperre lesen, Änderungen unbekannter Notizen sind selten
+        Index snapshot = index;
+        Optional<NoteSummary> stored = snapshot != null && snapshot.isUnknownChange(event)
+                ? noteRepository.findSummaryById(event.noteId())
+                : null;
+        writeLock.lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            Index current = index;
+            if (current == null) {
+                return;
+            }
+            if (stored != null && current.isUnknownChange(event)) {
+                current.applyStored(event, stored);
+            } else {
+                current.apply(event);
+            }
+            if (current.size() > maxNotes) {
+                index = null;
+                LOGGER.warning(() -> "Lesemodell abgeschaltet: mehr als " + maxNotes
+                        + " Notizen, Listen werden aus der Datenbank gelesen");
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Baut das Modell komplett neu aus der Datenbank auf
+     * Anfragen werden währenddessen weiter aus dem bisherigen Modell beantwortet, bei einem Fehler bleibt es bestehen
+     */
+    @Monitored
+    public void rebuild() {
+        if (enabled) {
+            load(false);
+        }
+    }
+
+    /**
+     * Prüft das Modell gegen die Datenbank und ersetzt es bei Abweichungen
+     * Notizen, die sich während der Prüfung ändern, zählen nicht als Abweichung
+     *
+     * @return Anzahl der abweichenden Notizen (fehlend, überzählig oder mit anderem Stand)
+     */
+    @Monitored
+    public int verify() {
+        return enabled ? load(true) : 0;
+    }
+
+    /**
+     * Lädt eine Seite von Notizzusammenfassungen, Parameter wie NoteRepository.findPage
+     */
+    @Monitored
+    public List<NoteSummary> findPage(int first, int pageSize, String sortField, boolean ascending, String titleFilter) {
+        Index current = index;
+        if (current == null) {
+            return noteRepository.findPage(first, pageSize, sortField, ascending, titleFilter);
+        }
+        Collection<NoteSummary> sorted;
+        if (TITLE_FIELD.equals(sortField)) {
+            sorted = ascending ? current.byTitle.values() : current.byTitle.descendingMap().values();
+        } else if (CREATED_AT_FIELD.equals(sortField) && ascending) {
+            sorted = current.byCreatedAt.values();
+        } else {
+            sorted = current.byCreatedAt.descendingMap().values();
+        }
+        return filter(sorted.stream(), titleFilter)
+                .skip(first)
+                .limit(pageSize)
+                .toList();
+    }
+
+    /**
+     * Keyset-Pagination, Parameter wie NoteRepository.findNextPage
+     */
+    @Monitored
+    public List<NoteSummary> findNextPage(NoteCursor after, int limit) {
+        Index current = index;
+        if (current == null) {
+            return noteRepository.findNextPage(after, limit);
+        }
+        NavigableMap<NoteSummary, NoteSummary> remaining = after == null
+                ? current.byCreatedAt
+                : current.byCreatedAt.headMap(new NoteSummary(after.id(), "", null, after.createdAt(), null), false);
+        return remaining.descendingMap().values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Zählt die Notizen, deren Titel den Filter enthält
+     * @param titleFilter Teilstring im Titel, null oder leer für alle Notizen
+     * @return Anzahl der passenden Notizen
+     */
+    @Monitored
+    public Long count(String titleFilter) {
+        Index current = index;
+        if (current == null) {
+            return noteRepository.count(titleFilter);
+        }
+        if (!hasText(titleFilter)) {
+            return (long) current.size();
+        }
+        return filter(current.byId.values().stream(), titleFilter).count();
+    }
+
+    /**
+     * Zählt alle Notizen
+     */
+    public Long count() {
+        return count(null);
+    }
+
+    /**
+     * Findet die Zusammenfassung einer Notiz anhand ihrer ID
+     */
+    public Optional<NoteSummary> findSummaryById(Long id) {
+        Index current = index;
+        if (current == null) {
+            return noteRepository.findSummaryById(id);
+        }
+        return Optional.ofNullable(current.byId.get(id));
+    }
+
+    /**
+     * Liest alle Notizen in ein neues Modell, vergleicht es optional mit dem bisherigen und schaltet um
+     *
+     * @return Anzahl der Abweichungen (nur beim Vergleich, sonst 0)
+     */
+    private int load(boolean compare) {
+        if (!rebuildLock.tryLock()) {
+            // Ein Aufbau läuft bereits
+            return 0;
+        }
+        try {
+            writeLock.lock();
+            try {
+                pendingChanges = new ArrayList<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            Index rebuilt = new Index();
+            boolean tooLarge = false;
+            try {
+                Long lastId = null;
+                List<NoteSummary> batch;
+                do {
+                    batch = noteRepository.findSummaryBatch(lastId, LOAD_BATCH_SIZE);
+                    for (NoteSummary note : batch) {
+                        rebuilt.put(note);
+                        lastId = note.getId();
+                    }
+                    tooLarge = rebuilt.size() > maxNotes;
+                } while (batch.size() == LOAD_BATCH_SIZE && !tooLarge);
+            } catch (RuntimeException e) {
+                // Bisheriges Modell behalten
+                writeLock.lock();
+                try {
+                    pendingChanges = null;
+                } finally {
+                    writeLock.unlock();
+                }
+                throw e;
+            }
+
+            int differences;
+            writeLock.lock();
+            try {
+                if (tooLarge) {
+                    pendingChanges = null;
+                    if (index != null || !compare) {
+                        LOGGER.warning(() -> "Lesemodell abgeschaltet: mehr als " + maxNotes
+                                + " Notizen, Listen werden aus der Datenbank gelesen");
+                    }
+                    index = null;
+                    return 0;
+                }
+                Index current = index;
+                differences = compare && current != null ? rebuilt.countDifferences(current, changedIds()) : 0;
+                // Vermerkte Löschungen übernehmen, Änderungen seit Beginn des Aufbaus nachziehen, dann umschalten
+                LocalDateTime tombstoneCutoff = LocalDateTime.now().minus(TOMBSTONE_RETENTION);
+                if (current != null) {
+                    current.deleted.forEach((id, deletedAt) -> {
+                        if (!rebuilt.byId.containsKey(id)) {
+                            rebuilt.deleted.put(id, deletedAt);
+                        }
+                    });
+                    current.pruneTombstones(tombstoneCutoff);
+                }
+                pendingChanges.forEach(rebuilt::apply);
+                rebuilt.pruneTombstones(tombstoneCutoff);
+                pendingChanges = null;
+                if (!compare || current == null || differences > 0) {
+                    index = rebuilt;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+
+            if (compare && differences > 0) {
+                int found = differences;
+                LOGGER.warning(() -> "Lesemodell weicht in " + found + " Notizen von der Datenbank ab, neu aufgebaut");
+            } else if (!compare) {
+                LOGGER.info(() -> "Lesemodell aufgebaut: " + rebuilt.size() + " Notizen");
+            }
+            return differences;
+        } catch (RuntimeException e) {
+            // Bisheriges Modell bzw. die Datenbank beantworten die Anfragen weiter
+            LOGGER.log(Level.SEVERE, "Lesemodell konnte nicht aus der Datenbank geladen werden", e);
+            return 0;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * IDs der Notizen, die sich seit Beginn des Aufbaus geändert haben (nur mit writeLock)
+     */
+    private Set<Long> changedIds() {
+        Set<Long> ids = new HashSet<>();
+        pendingChanges.forEach(change -> ids.add(change.noteId()));
+        return ids;
+    }
+
+    private static Stream<NoteSummary> filter(Stream<NoteSummary> notes, String titleFilter) {
+        if (!hasText(titleFilter)) {
+            return notes;
+        }
+        // Wie LOWER(n.title) LIKE '%filter%' im NoteRepository
+        String needle = titleFilter.trim().toLowerCase(Locale.ROOT);
+        Predicate<NoteSummary> matches = note -> note.getTitle().toLowerCase(Locale.ROOT).contains(needle);
+        return notes.filter(matches);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Die Notizen eines Modells, nach ID und in beiden Sortierungen
+     * Geändert wird nur mit writeLock bzw. vor dem Umschalten, gelesen ohne Sperre
+     */
+    private static final class Index {
+
+        private final Map<Long, NoteSummary> byId = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<NoteSummary, NoteSummary> byCreatedAt =
+                new ConcurrentSkipListMap<>(BY_CREATED_AT);
+        private final ConcurrentSkipListMap<NoteSummary, NoteSummary> byTitle =
+                new ConcurrentSkipListMap<>(BY_TITLE);
+
+        // Gelöschte Notizen mit dem Zeitpunkt der Löschung, geändert nur mit writeLock bzw. vor dem Umschalten
+        private final Map<Long, LocalDateTime> deleted = new ConcurrentHashMap<>();
+
+        private LocalDateTime nextPrune = LocalDateTime.MIN;
+
+        int size() {
+            return byId.size();
+        }
+
+        void apply(NoteChangedEvent event) {
+            if (event.changeType() == ChangeType.DELETED) {
+                remove(event.noteId());
+                deleted.merge(event.noteId(), event.changedAt(), (a, b) -> a.isAfter(b) ? a : b);
+                if (event.changedAt().isAfter(nextPrune)) {
+                    pruneTombstones(event.changedAt().minus(TOMBSTONE_RETENTION));
+                    nextPrune = event.changedAt().plus(TOMBSTONE_PRUNE_INTERVAL);
+                }
+                return;
+            }
+            LocalDateTime deletedAt = deleted.get(event.noteId());
+            if (deletedAt != null) {
+                if (!event.changedAt().isAfter(deletedAt)) {
+                    // Event einer vor der Löschung committeten Transaktion, das erst danach ankommt
+                    return;
+                }
+                deleted.remove(event.noteId());
+            }
+            NoteSummary existing = byId.get(event.noteId());
+            LocalDateTime updatedAt = round(event.updatedAt());
+            if (existing != null && existing.getUpdatedAt().isAfter(updatedAt)) {
+                // Event einer früher committeten Transaktion, der neuere Stand ist schon übernommen
+                return;
+            }
+            put(new NoteSummary(event.noteId(), event.title(), NoteSummary.previewOf(event.content()),
+                    round(event.createdAt()), updatedAt));
+        }
+
+        /**
+         * Änderung (nicht Neuanlage) einer Notiz, die weder im Modell ist noch als gelöscht vermerkt
+         * Entweder kommt das Event vor dem der Neuanlage an oder die Notiz wurde vor dem Aufbau gelöscht.
+         */
+        boolean isUnknownChange(NoteChangedEvent event) {
+            return event.changeType() != ChangeType.CREATED && event.changeType() != ChangeType.DELETED
+                    && !byId.containsKey(event.noteId()) && !deleted.containsKey(event.noteId());
+        }
+
+        /**
+         * Übernimmt für eine unbekannte Notiz den Stand aus der Datenbank statt des Events
+         * @param stored Aktueller Stand, leer wenn die Notiz nicht mehr existiert
+         */
+        void applyStored(NoteChangedEvent event, Optional<NoteSummary> stored) {
+            stored.ifPresentOrElse(this::put, () -> deleted.put(event.noteId(), event.changedAt()));
+        }
+
+        /**
+         * Entfernt Vermerke über Löschungen, die vor cutoff stattfanden
+         */
+        void pruneTombstones(LocalDateTime cutoff) {
+            deleted.values().removeIf(deletedAt -> deletedAt.isBefore(cutoff));
+        }
+
+        void put(NoteSummary note) {
+            NoteSummary existing = byId.put(note.getId(), note);
+            // Gleicher Schlüssel: put ersetzt den Eintrag, Leser sehen immer genau eine Version
+            byCreatedAt.put(note, note);
+            byTitle.put(note, note);
+            if (existing != null && !existing.getTitle().equals(note.getTitle())) {
+                byTitle.remove(existing);
+            }
+            if (existing != null && !existing.getCreatedAt().equals(note.getCreatedAt())) {
+                byCreatedAt.remove(existing);
+            }
+        }
+
+        void remove(Long id) {
+            NoteSummary existing = byId.remove(id);
+            if (existing != null) {
+                byCreatedAt.remove(existing);
+                byTitle.remove(existing);
+            }
+        }
+
+        /**
+         * Zählt die Notizen mit unterschiedlichem Stand in beiden Modellen
+         */
+        int countDifferences(Index other, Set<Long> ignoredIds) {
+            int differences = 0;
+            for (NoteSummary note : byId.values()) {
+                if (!ignoredIds.contains(note.getId()) && !sameState(note, other.byId.get(note.getId()))) {
+                    differences++;
+                }
+            }
+            for (Long id : other.byId.keySet()) {
+                if (!ignoredIds.contains(id) && !byId.containsKey(id)) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+
+        private static boolean sameState(NoteSummary note, NoteSummary other) {
+            return other != null
+                    && Objects.equals(note.getTitle(), other.getTitle())
+                    && Objects.equals(note.getPreview(), other.getPreview())
+                    && Objects.equals(note.getCreatedAt(), other.getCreatedAt())
+                    && Objects.equals(note.getUpdatedAt(), other.getUpdatedAt());
+        }
+
+        // Die Datenbank speichert Zeitstempel auf Mikrosekunden gerundet, Events enthalten den Wert aus der Entity
+        private static LocalDateTime round(LocalDateTime value) {
+            return value != null ? value.plusNanos(500).truncatedTo(ChronoUnit.MICROS) : null;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gepardec.notizblock.readmodel;
+
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.config.ConfigProperties;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prüft das NoteReadModel periodisch gegen die Datenbank (siehe NoteReadModel.verify)
+ * Der Scheduler stößt die Prüfung nur an, ausgeführt wird sie im BackgroundExecutor.
+ *
+ * Konfiguration (System-Property):
+ * notizblock.readModel.verifyIntervalMinutes (Standard 15, 0 = keine periodische Prüfung)
+ */
+@ApplicationScoped
+public class ReadModelVerificationJob {
+
+    @Inject
+    private NoteReadModel noteReadModel;
+
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private final long intervalMinutes = ConfigProperties.getLong("readModel.verifyIntervalMinutes", 15);
+
+    private ScheduledFuture<?> task;
+
+    /**
+     * Startet die periodische Prüfung
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        if (intervalMinutes <= 0) {
+            return;
+        }
+        task = scheduler.scheduleWithFixedDelay(() -> backgroundExecutor.execute(noteReadModel::verify),
+                intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.gepardec.notizblock.repository;
+
+import com.gepardec.notizblock.entity.CompressedTextConverter;
+import com.gepardec.notizblock.entity.StoredContent;
+import com.gepardec.notizblock.metrics.Monitored;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Repository für den inhaltsadressierten Speicher (Tabelle content_store aus V6__content_store.sql)
+ * Inhalte von Notizen und Snapshots der Historie werden unter dem SHA-256 ihres Textes abgelegt, gleiche
+ * Inhalte (z.B. mehrfach eingefügte Vorlagen, Notiz und ihr CREATED-Snapshot) also nur einmal.
+ * ref_count zählt die verweisenden Zeilen in notes, note_history und history_outbox: acquire erhöht ihn
+ * und schreibt den Inhalt nur, wenn der Hash noch nicht vorhanden ist; release verringert ihn und löscht
+ * Einträge ohne Verweis. Beides läuft per JDBC in der Transaktion des Aufrufers (wie im StatisticsRepository).
+ *
+ * Reihenfolge: acquire vor dem Schreiben der verweisenden Zeile, release erst nach deren Flush, sonst
+ * verletzt das Löschen des Eintrags den Foreign Key.
+ */
+@ApplicationScoped
+@Monitored
+public class ContentStoreRepository {
+
+    // SQLState für die Verletzung eines Unique-/Primary-Key-Constraints
+    private static final String DUPLICATE_KEY = "23505";
+
+    private static final String INCREMENT =
+            "UPDATE content_store SET ref_count = ref_count + 1 WHERE hash = ?";
+
+    private static final String INSERT =
+            "INSERT INTO content_store (hash, data, ref_count) VALUES (?, ?, 1)";
+
+    private static final String DECREMENT =
+            "UPDATE content_store SET ref_count = ref_count - ? WHERE hash = ?";
+
+    private static final String DELETE_UNREFERENCED =
+            "DELETE FROM content_store WHERE hash = ? AND ref_count <= 0";
+
+    @PersistenceContext(unitName = "NotizblockPU")
+    private EntityManager entityManager;
+
+    /**
+     * Berechnet den Schlüssel eines Inhalts
+     *
+     * @return SHA-256 der UTF-8-Bytes als Hex-String (64 Zeichen)
+     */
+    public static String hash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 muss jede Java-Plattform bereitstellen
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Legt einen Inhalt ab bzw. zählt einen weiteren Verweis darauf
+     *
+     * @param content Der Inhalt
+     * @return Referenz auf den Eintrag (ohne ihn zu laden) für Note.setBody bzw. NoteHistory.setBody
+     */
+    public StoredContent store(String content) {
+        return acquire(hash(content), content);
+    }
+
+    /**
+     * Wie store, mit bereits berechnetem Hash
+     */
+    public StoredContent acquire(String hash, String content) {
+        session().doWork(connection -> acquire(connection, hash, content));
+        return entityManager.getReference(StoredContent.class, hash);
+    }
+
+    /**
+     * Gibt Verweise frei und löscht Einträge, auf die nichts mehr verweist
+     * Die verweisenden Zeilen müssen bereits geändert bzw. gelöscht und geflusht sein
+     *
+     * @param hashes Ein Hash pro freigegebenem Verweis (mehrfach, wenn mehrere Zeilen verwiesen haben)
+     */
+    public void release(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        session().doWork(connection -> release(connection, hashes));
+    }
+
+    /**
+     * Setzt ref_count auf die tatsächliche Anzahl der Verweise und löscht Einträge ohne Verweis
+     * (z.B. nachdem Zeilen per JDBC an acquire/release vorbei geschrieben wurden)
+     */
+    @Transactional
+    public void recalculate() {
+        session().doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE content_store c SET ref_count = "
+                        + "(SELECT COUNT(*) FROM notes n WHERE n.content_hash = c.hash) "
+                        + "+ (SELECT COUNT(*) FROM note_history h WHERE h.content_hash = c.hash) "
+                        + "+ (SELECT COUNT(*) FROM history_outbox o WHERE o.content_hash = c.hash)");
+                statement.executeUpdate("DELETE FROM content_store WHERE ref_count = 0");
+            }
+        });
+    }
+
+    /**
+     * Erhöht ref_count, schreibt den Inhalt nur für einen neuen Hash
+     */
+    static void acquire(Connection connection, String hash, String content) throws SQLException {
+        if (increment(connection, hash)) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+            insert.setString(1, hash);
+            insert.setBytes(2, CompressedTextConverter.encode(content));
+            insert.executeUpdate();
+        } catch (SQLException e) {
+            // Eine parallele Transaktion hat denselben Inhalt gerade angelegt, dann nur mitzählen
+            if (!DUPLICATE_KEY.equals(e.getSQLState()) || !increment(connection, hash)) {
+                throw e;
+            }
+        }
+    }
+
+    static void release(Connection connection, Collection<String> hashes) throws SQLException {
+        Map<String, Long> counts = hashes.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        try (PreparedStatement decrement = connection.prepareStatement(DECREMENT);
+             PreparedStatement delete = connection.prepareStatement(DELETE_UNREFERENCED)) {
+            for (Map.Entry<String, Long> entry : counts.entrySet()) {
+                decrement.setLong(1, entry.getValue());
+                decrement.setString(2, entry.getKey());
+                decrement.addBatch();
+                delete.setString(1, entry.getKey());
+                delete.addBatch();
+            }
+            decrement.executeBatch();
+            delete.executeBatch();
+        }
+    }
+
+    private static boolean increment(Connection connection, String hash) throws SQLException {
+        try (PreparedStatement increment = connection.prepareStatement(INCREMENT)) {
+            increment.setString(1, hash);
+            return increment.executeUpdate() > 0;
+        }
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
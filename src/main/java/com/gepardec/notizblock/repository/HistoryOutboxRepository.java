@@ -0,0 +1,149 @@
+package com.gepardec.notizblock.repository;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.entity.HistoryOutboxEntry;
+import com.gepardec.notizblock.entity.StoredContent;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.metrics.Monitored;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository für den Outbox der Historie (Tabelle history_outbox)
+ * NoteRepository legt pro Änderung einen Eintrag in der Transaktion der Notiz an: wird die Änderung
+ * committet, ist auch der Eintrag gespeichert, bei einem Rollback fehlen beide. Der HistoryWriter schreibt
+ * daraus die History-Einträge und löscht die Outbox-Zeilen in derselben Transaktion, ein Eintrag wird
+ * also genau einmal geschrieben.
+ *
+ * Einträge, deren Schreiben wiederholt fehlschlägt, werden nach notizblock.history.maxAttempts Versuchen
+ * (Standard 5) mit failedAt markiert und danach übergangen, damit sie spätere Änderungen nicht blockieren.
+ */
+@ApplicationScoped
+@Monitored
+public class HistoryOutboxRepository {
+
+    // Länge der Spalte lastError
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final int maxAttempts = Math.max(1, ConfigProperties.getInt("history.maxAttempts", 5));
+
+    @PersistenceContext(unitName = "NotizblockPU")
+    private EntityManager entityManager;
+
+    @Inject
+    private NoteHistoryRepository historyRepository;
+
+    @Inject
+    private ContentStoreRepository contentStoreRepository;
+
+    /**
+     * Legt einen Eintrag in der Transaktion des Aufrufers an
+     * @param change Die Änderung (Momentaufnahme der Notiz)
+     * @param contentHash Hash des Inhalts, den die Notiz bereits im content_store hält (nur ein weiterer Verweis)
+     */
+    @Transactional
+    public void add(NoteChangedEvent change, String contentHash) {
+        StoredContent body = contentStoreRepository.acquire(contentHash, change.content());
+        entityManager.persist(new HistoryOutboxEntry(change.noteId(), change.changeType(), change.title(), body,
+                change.changedAt()));
+    }
+
+    /**
+     * Keyset-Pagination über die offenen Einträge, ohne Inhalte zu laden
+     * @param afterId ID des zuletzt gelesenen Eintrags (0 für den Anfang)
+     * @param limit Maximale Anzahl der Einträge
+     * @return Einträge sortiert nach ID, also in der Reihenfolge der Änderungen
+     */
+    public List<HistoryOutboxEntry> findPending(long afterId, int limit) {
+        return entityManager.createQuery(
+                "SELECT e FROM HistoryOutboxEntry e WHERE e.id > :afterId AND e.failedAt IS NULL ORDER BY e.id ASC",
+                HistoryOutboxEntry.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Schreibt die History-Einträge zu den angegebenen Outbox-Einträgen und löscht diese
+     * Alles in einer Transaktion: schlägt etwas fehl, bleiben die Outbox-Einträge unverändert erhalten.
+     * Bereits von einem anderen Aufruf geschriebene Einträge fehlen beim Laden und werden übergangen.
+     * @param ids IDs der Outbox-Einträge
+     * @return Anzahl der verarbeiteten Einträge
+     */
+    @Transactional
+    public int write(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Die Inhalte im selben Statement laden statt einzeln pro Eintrag
+        List<HistoryOutboxEntry> entries = entityManager.createQuery(
+                "SELECT e FROM HistoryOutboxEntry e JOIN FETCH e.body WHERE e.id IN :ids AND e.failedAt IS NULL "
+                        + "ORDER BY e.id ASC",
+                HistoryOutboxEntry.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        historyRepository.createHistoryEntries(entries.stream()
+                .map(HistoryOutboxRepository::toChange)
+                .toList());
+        entityManager.createQuery("DELETE FROM HistoryOutboxEntry e WHERE e.id IN :ids")
+                .setParameter("ids", entries.stream().map(HistoryOutboxEntry::getId).toList())
+                .executeUpdate();
+        // Die Snapshots haben ihren Verweis bereits erhalten, der Inhalt bleibt dann bestehen
+        contentStoreRepository.release(entries.stream()
+                .map(entry -> entry.getBody().getHash())
+                .toList());
+        return entries.size();
+    }
+
+    /**
+     * Vermerkt einen fehlgeschlagenen Schreibversuch
+     * Ab maxAttempts Versuchen wird der Eintrag mit failedAt markiert und nicht mehr geschrieben
+     * @param id ID des Outbox-Eintrags
+     * @param error Beschreibung des Fehlers
+     * @return true wenn der Eintrag damit aufgegeben wurde
+     */
+    @Transactional
+    public boolean recordFailure(Long id, String error) {
+        HistoryOutboxEntry entry = entityManager.find(HistoryOutboxEntry.class, id);
+        if (entry == null) {
+            return false;
+        }
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH)
+                : error);
+        if (entry.getAttempts() < maxAttempts) {
+            return false;
+        }
+        entry.setFailedAt(LocalDateTime.now());
+        return true;
+    }
+
+    /**
+     * @return Anzahl der noch nicht geschriebenen Einträge (ohne aufgegebene)
+     */
+    public long count() {
+        return entityManager.createQuery(
+                "SELECT COUNT(e) FROM HistoryOutboxEntry e WHERE e.failedAt IS NULL", Long.class)
+                .getSingleResult();
+    }
+
+    /**
+     * Änderung für NoteHistoryRepository.createHistoryEntries, Erstellungs- und Änderungsdatum
+     * der Notiz werden dort nicht gebraucht
+     */
+    private static NoteChangedEvent toChange(HistoryOutboxEntry entry) {
+        return new NoteChangedEvent(entry.getNoteId(), entry.getChangeType(), entry.getTitle(),
+                entry.getBody().getText(), null, null, entry.getChangedAt());
+    }
+}
@@ -0,0 +1,81 @@
+package com.gepardec.notizblock.repository;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.metrics.Monitored;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Bulk-Operationen auf Notizen
+ * Große Löschmengen werden in Chunks zerlegt, jeder Chunk läuft in einer eigenen Transaktion
+ * (über NoteRepository.deleteAllById), damit Transaktionen und Sperren kurz bleiben.
+ * Chunk-Größe über die System-Property notizblock.bulk.chunkSize (Standard 500).
+ */
+@ApplicationScoped
+@Monitored
+public class NoteBulkRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(NoteBulkRepository.class.getName());
+
+    private final int chunkSize = Math.max(1, ConfigProperties.getInt("bulk.chunkSize", 500));
+
+    @Inject
+    private NoteRepository noteRepository;
+
+    /**
+     * Löscht die Notizen mit den angegebenen IDs samt Historie
+     * @param ids Die IDs der zu löschenden Notizen
+     * @return Anzahl der gelöschten Notizen
+     */
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        int deleted = 0;
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            deleted += noteRepository.deleteAllById(idList.subList(from, Math.min(from + chunkSize, idList.size())));
+        }
+        return deleted;
+    }
+
+    /**
+     * Löscht alle Notizen, die vor dem angegebenen Zeitpunkt erstellt wurden
+     * @param createdBefore Stichtag (exklusiv)
+     * @return Anzahl der gelöschten Notizen
+     */
+    public int deleteOlderThan(LocalDateTime createdBefore) {
+        return deleteMatching(createdBefore, null);
+    }
+
+    /**
+     * Löscht alle Notizen, deren Titel den Teilstring enthält (ohne Beachtung der Groß-/Kleinschreibung)
+     * @param titleFilter Teilstring im Titel, darf nicht leer sein
+     * @return Anzahl der gelöschten Notizen
+     */
+    public int deleteByTitleContaining(String titleFilter) {
+        if (titleFilter == null || titleFilter.isBlank()) {
+            throw new IllegalArgumentException("Titelfilter darf nicht leer sein");
+        }
+        return deleteMatching(null, titleFilter);
+    }
+
+    private int deleteMatching(LocalDateTime createdBefore, String titleFilter) {
+        int deleted = 0;
+        List<Long> chunk;
+        while (!(chunk = noteRepository.findIds(createdBefore, titleFilter, chunkSize)).isEmpty()) {
+            int chunkDeleted = noteRepository.deleteAllById(chunk);
+            if (chunkDeleted == 0) {
+                // Nichts mehr löschbar (z.B. parallel entfernt), Endlosschleife vermeiden
+                break;
+            }
+            deleted += chunkDeleted;
+        }
+        int total = deleted;
+        LOGGER.info(() -> "Bulk-Delete: " + total + " Notizen gelöscht");
+        return deleted;
+    }
+}
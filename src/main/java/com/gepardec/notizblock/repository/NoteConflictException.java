@@ -0,0 +1,24 @@
+package com.gepardec.notizblock.repository;
+
+import java.io.Serial;
+
+/**
+ * Eine Notiz wurde seit dem Laden von jemand anderem geändert oder gelöscht
+ * Wird statt der OptimisticLockException geworfen, damit Aufrufer den Konflikt gezielt behandeln können
+ */
+public class NoteConflictException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Long noteId;
+
+    public NoteConflictException(Long noteId, Throwable cause) {
+        super("Notiz mit ID " + noteId + " wurde zwischenzeitlich geändert oder gelöscht", cause);
+        this.noteId = noteId;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+}
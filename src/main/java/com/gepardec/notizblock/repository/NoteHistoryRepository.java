@@ -1,23 +1,59 @@
 package com.gepardec.notizblock.repository;
 
+import com.gepardec.notizblock.config.ConfigProperties;
 import com.gepardec.notizblock.entity.Note;
 import com.gepardec.notizblock.entity.NoteHistory;
 import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.entity.NoteHistoryArchive;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.history.RetentionPolicy;
+import com.gepardec.notizblock.history.RetentionResult;
+import com.gepardec.notizblock.history.Revision;
+import com.gepardec.notizblock.history.RevisionCodec;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.HistoryEntrySummary;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Repository für Datenbankoperationen auf NoteHistory-Entities
  */
 @ApplicationScoped
+@Monitored
 public class NoteHistoryRepository {
 
+    // Projektion für die Timeline, ohne die Payload zu laden
+    private static final String HISTORY_SUMMARY_SELECT =
+            "SELECT new com.gepardec.notizblock.model.HistoryEntrySummary(" +
+            "h.id, h.revision, h.changeType, h.changedAt, CASE WHEN h.payload IS NULL THEN false ELSE true END) " +
+            "FROM NoteHistory h";
+
+    // Jede n-te Revision wird als vollständiger Snapshot gespeichert
+    private final int snapshotInterval = Math.max(1, ConfigProperties.getInt("history.snapshotInterval", 10));
+
     @PersistenceContext(unitName = "NotizblockPU")
     private EntityManager entityManager;
 
+    @Inject
+    private StatisticsRepository statisticsRepository;
+
+    @Inject
+    private ContentStoreRepository contentStoreRepository;
+
     /**
      * Erstellt einen neuen History-Eintrag
      * @param history Der zu speichernde History-Eintrag
@@ -27,6 +63,7 @@ public class NoteHistoryRepository {
     public NoteHistory create(NoteHistory history) {
         entityManager.persist(history);
         entityManager.flush();
+        statisticsRepository.historyWritten(Map.of(history.getNote().getId(), 1L));
         return history;
     }
 
@@ -38,8 +75,135 @@ public class NoteHistoryRepository {
      */
     @Transactional
     public NoteHistory createHistoryEntry(Note note, ChangeType changeType) {
-        NoteHistory history = new NoteHistory(note, changeType);
-        return create(history);
+        List<NoteHistory> written = createHistoryEntries(List.of(NoteChangedEvent.of(note, changeType)));
+        return written.isEmpty() ? null : written.get(0);
+    }
+
+    /**
+     * Schreibt mehrere History-Einträge in einer Transaktion (für den asynchronen HistoryWriter)
+     * Jeder Eintrag bekommt die nächste Revisionsnummer und als Payload einen Snapshot
+     * (erste und jede snapshotInterval-te Revision) oder ein Delta zur Vorgänger-Revision.
+     * Der Inhalt eines Snapshots liegt im content_store, meist ist er dort schon als Inhalt der Notiz.
+     * Einträge für inzwischen gelöschte Notizen werden übersprungen.
+     * @param changes Die Änderungen, für die Einträge erstellt werden
+     * @return Die geschriebenen History-Einträge
+     */
+    @Transactional
+    public List<NoteHistory> createHistoryEntries(List<NoteChangedEvent> changes) {
+        Set<Long> noteIds = changes.stream()
+                .map(NoteChangedEvent::noteId)
+                .collect(Collectors.toSet());
+        Set<Long> existingIds = new HashSet<>(entityManager.createQuery(
+                "SELECT n.id FROM Note n WHERE n.id IN :noteIds", Long.class)
+                .setParameter("noteIds", noteIds)
+                .getResultList());
+
+        // Letzte Revision pro Notiz, innerhalb des Batches fortgeschrieben
+        Map<Long, RevisionChain> chains = new HashMap<>();
+        List<NoteHistory> written = new ArrayList<>();
+        for (NoteChangedEvent change : changes) {
+            if (!existingIds.contains(change.noteId())) {
+                continue;
+            }
+            RevisionChain chain = chains.computeIfAbsent(change.noteId(), this::loadLatestChain);
+            Revision previous = chain.latest();
+            int number = previous != null ? previous.getNumber() + 1 : 1;
+            boolean snapshot = previous == null || chain.deltasSinceSnapshot() + 1 >= snapshotInterval;
+
+            NoteHistory history = new NoteHistory(
+                    entityManager.getReference(Note.class, change.noteId()), change.changeType());
+            history.setChangedAt(change.changedAt());
+            history.setRevision(number);
+            history.setSnapshot(snapshot);
+            if (snapshot) {
+                setSnapshotPayload(history, change.title(), change.content());
+            } else {
+                history.setPayload(RevisionCodec.encodeDelta(previous.getContent(), change.title(), change.content()));
+            }
+            entityManager.persist(history);
+            written.add(history);
+
+            chains.put(change.noteId(), new RevisionChain(
+                    new Revision(number, change.title(), change.content(), change.changedAt()),
+                    snapshot ? 0 : chain.deltasSinceSnapshot() + 1));
+        }
+        // Ein Flush für den gesamten Batch statt einem pro Eintrag
+        entityManager.flush();
+        statisticsRepository.historyWritten(written.stream()
+                .collect(Collectors.groupingBy(history -> history.getNote().getId(), Collectors.counting())));
+        return written;
+    }
+
+    /**
+     * Setzt einen Snapshot als Verweis auf den content_store, nur ohne Inhalt eingebettet
+     */
+    private void setSnapshotPayload(NoteHistory history, String title, String content) {
+        if (content == null) {
+            history.setPayload(RevisionCodec.encodeSnapshot(title, null));
+            return;
+        }
+        history.setBody(contentStoreRepository.store(content));
+        history.setPayload(RevisionCodec.encodeSnapshotReference(title));
+    }
+
+    /**
+     * Rekonstruiert eine Revision einer Notiz ausgehend vom nächstgelegenen Snapshot
+     * @param noteId Die ID der Notiz
+     * @param revision Die Revisionsnummer
+     * @return Optional mit Titel und Inhalt der Revision oder leer, falls nicht vorhanden
+     */
+    public Optional<Revision> findRevision(Long noteId, int revision) {
+        List<Revision> chain = rebuildChain(noteId, revision);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getNumber() != revision) {
+            return Optional.empty();
+        }
+        return Optional.of(chain.get(chain.size() - 1));
+    }
+
+    /**
+     * Lädt die Einträge vom letzten Snapshot bis zur gewünschten Revision und wendet die Deltas an
+     * @return Rekonstruierte Revisionen in aufsteigender Reihenfolge (letzte = gewünschte Revision)
+     */
+    private List<Revision> rebuildChain(Long noteId, int upToRevision) {
+        List<NoteHistory> entries = entityManager.createQuery(
+                "SELECT h FROM NoteHistory h LEFT JOIN FETCH h.body " +
+                "WHERE h.note.id = :noteId AND h.revision <= :revision " +
+                "AND h.revision >= (SELECT MAX(s.revision) FROM NoteHistory s " +
+                "WHERE s.note.id = :noteId AND s.snapshot = true AND s.revision <= :revision) " +
+                "ORDER BY h.revision ASC", NoteHistory.class)
+                .setParameter("noteId", noteId)
+                .setParameter("revision", upToRevision)
+                .getResultList();
+        return decode(entries);
+    }
+
+    /**
+     * Dekodiert aufeinanderfolgende Einträge, der erste muss ein Snapshot sein
+     */
+    private static List<Revision> decode(List<NoteHistory> entries) {
+        List<Revision> chain = new ArrayList<>(entries.size());
+        Revision previous = null;
+        for (NoteHistory entry : entries) {
+            String storedContent = entry.getBody() != null ? entry.getBody().getText() : null;
+            previous = RevisionCodec.decode(entry.getPayload(), storedContent, previous,
+                    entry.getRevision(), entry.getChangedAt());
+            chain.add(previous);
+        }
+        return chain;
+    }
+
+    private RevisionChain loadLatestChain(Long noteId) {
+        List<Revision> chain = rebuildChain(noteId, Integer.MAX_VALUE);
+        if (chain.isEmpty()) {
+            return new RevisionChain(null, 0);
+        }
+        return new RevisionChain(chain.get(chain.size() - 1), chain.size() - 1);
+    }
+
+    /**
+     * Letzte Revision einer Notiz und Anzahl der Deltas seit dem letzten Snapshot
+     */
+    private record RevisionChain(Revision latest, int deltasSinceSnapshot) {
     }
 
     /**
@@ -52,6 +216,42 @@ public class NoteHistoryRepository {
                 "SELECT h FROM NoteHistory h WHERE h.note.id = :noteId ORDER BY h.changedAt ASC",
                 NoteHistory.class)
                 .setParameter("noteId", noteId)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    /**
+     * Keyset-Pagination für die Timeline: lädt die Einträge vor einer Revision (neueste zuerst)
+     * Liest keine Payloads; dank des Unique-Index auf (note_id, revision) unabhängig von der Länge der Historie
+     * @param noteId Die ID der Notiz
+     * @param beforeRevision Revision des zuletzt geladenen Eintrags, null für die erste Seite
+     * @param limit Maximale Anzahl der Einträge
+     * @return Zusammenfassungen sortiert nach revision DESC
+     */
+    public List<HistoryEntrySummary> findPageByNoteId(Long noteId, Integer beforeRevision, int limit) {
+        return entityManager.createQuery(
+                HISTORY_SUMMARY_SELECT + " WHERE h.note.id = :noteId AND h.revision < :beforeRevision" +
+                " ORDER BY h.revision DESC", HistoryEntrySummary.class)
+                .setParameter("noteId", noteId)
+                .setParameter("beforeRevision", beforeRevision != null ? beforeRevision : Integer.MAX_VALUE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Offset-Pagination für die Timeline, wenn keine Cursor-Position bekannt ist
+     * @param noteId Die ID der Notiz
+     * @param first Index des ersten Eintrags
+     * @param limit Maximale Anzahl der Einträge
+     * @return Zusammenfassungen sortiert nach revision DESC
+     */
+    public List<HistoryEntrySummary> findPageByNoteIdWithOffset(Long noteId, int first, int limit) {
+        return entityManager.createQuery(
+                HISTORY_SUMMARY_SELECT + " WHERE h.note.id = :noteId ORDER BY h.revision DESC",
+                HistoryEntrySummary.class)
+                .setParameter("noteId", noteId)
+                .setFirstResult(first)
+                .setMaxResults(limit)
                 .getResultList();
     }
 
@@ -69,27 +269,166 @@ public class NoteHistoryRepository {
 
     /**
      * Zählt die Anzahl der History-Einträge für eine Notiz
+     * Liest den fortlaufend gepflegten Zähler statt einer COUNT-Abfrage
      * @param noteId Die ID der Notiz
      * @return Anzahl der History-Einträge
      */
     public Long countByNoteId(Long noteId) {
+        return statisticsRepository.countHistoryEntries(noteId);
+    }
+
+    /**
+     * Findet die IDs aller Notizen mit mehr als minEntries History-Einträgen
+     * @param minEntries Mindestanzahl (exklusiv)
+     * @return IDs aufsteigend sortiert
+     */
+    public List<Long> findNoteIdsWithMoreEntriesThan(int minEntries) {
+        return statisticsRepository.findNoteIdsWithMoreHistoryEntriesThan(minEntries);
+    }
+
+    /**
+     * Wendet die Aufbewahrungsregeln auf die Historie einer Notiz an
+     * Archiviert wird nur ein Präfix der Kette, damit Archiv und Historie jeweils lückenlos bleiben.
+     * Nach dem Entfernen werden die verbleibenden Einträge ab der ersten Lücke neu kodiert
+     * (Snapshot oder Delta zum neuen Vorgänger), Titel und Inhalt jeder Revision bleiben gleich.
+     * Archivierte Einträge enthalten den Inhalt von Snapshots eingebettet, nicht mehr benötigte
+     * Verweise auf den content_store werden freigegeben.
+     * @param noteId Die ID der Notiz
+     * @param policy Die Aufbewahrungsregeln
+     * @return Anzahl der archivierten und zusammengefassten Einträge
+     */
+    @Transactional
+    public RetentionResult applyRetention(Long noteId, RetentionPolicy policy) {
+        List<NoteHistory> entries = entityManager.createQuery(
+                "SELECT h FROM NoteHistory h LEFT JOIN FETCH h.body WHERE h.note.id = :noteId ORDER BY h.revision ASC",
+                NoteHistory.class)
+                .setParameter("noteId", noteId)
+                .getResultList();
+        int protectedFrom = entries.size() - policy.keepLast();
+        if (protectedFrom <= 0) {
+            return RetentionResult.NONE;
+        }
+
+        int archived = 0;
+        while (archived < protectedFrom && entries.get(archived).getChangedAt().isBefore(policy.archiveBefore())) {
+            archived++;
+        }
+
+        // Ein UPDATED entfällt, wenn der nächste Eintrag ebenfalls ein UPDATED vor collapseBefore ist
+        boolean[] removed = new boolean[entries.size()];
+        int collapsed = 0;
+        for (int i = archived; i < protectedFrom; i++) {
+            NoteHistory next = entries.get(i + 1);
+            if (entries.get(i).getChangeType() == ChangeType.UPDATED && next.getChangeType() == ChangeType.UPDATED
+                    && next.getChangedAt().isBefore(policy.collapseBefore())) {
+                removed[i] = true;
+                collapsed++;
+            }
+        }
+        if (archived == 0 && collapsed == 0) {
+            return RetentionResult.NONE;
+        }
+
+        // Vor dem Entfernen dekodieren, danach fehlen die Vorgänger der Deltas
+        List<Revision> revisions = decode(entries);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < archived; i++) {
+            NoteHistory entry = entries.get(i);
+            Revision revision = revisions.get(i);
+            // Das Archiv bleibt ohne Verweise auf den content_store lesbar
+            byte[] payload = entry.getBody() != null
+                    ? RevisionCodec.encodeSnapshot(revision.getTitle(), revision.getContent())
+                    : entry.getPayload();
+            entityManager.persist(new NoteHistoryArchive(entry, payload, now));
+            removed[i] = true;
+        }
+
+        List<String> releasedHashes = new ArrayList<>();
+        int firstGap = -1;
+        Revision previous = null;
+        int deltasSinceSnapshot = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            NoteHistory entry = entries.get(i);
+            if (removed[i]) {
+                if (entry.getBody() != null) {
+                    releasedHashes.add(entry.getBody().getHash());
+                }
+                entityManager.remove(entry);
+                firstGap = firstGap < 0 ? i : firstGap;
+                continue;
+            }
+            Revision revision = revisions.get(i);
+            if (firstGap >= 0) {
+                boolean snapshot = previous == null || deltasSinceSnapshot + 1 >= snapshotInterval;
+                if (entry.getBody() != null) {
+                    releasedHashes.add(entry.getBody().getHash());
+                    entry.setBody(null);
+                }
+                entry.setSnapshot(snapshot);
+                if (snapshot) {
+                    setSnapshotPayload(entry, revision.getTitle(), revision.getContent());
+                } else {
+                    entry.setPayload(RevisionCodec.encodeDelta(
+                            previous.getContent(), revision.getTitle(), revision.getContent()));
+                }
+            }
+            deltasSinceSnapshot = entry.isSnapshot() ? 0 : deltasSinceSnapshot + 1;
+            previous = revision;
+        }
+        entityManager.flush();
+        contentStoreRepository.release(releasedHashes);
+        statisticsRepository.historyRemoved(noteId, archived + collapsed);
+        return new RetentionResult(archived, collapsed);
+    }
+
+    /**
+     * Zählt die archivierten History-Einträge einer Notiz
+     * @param noteId Die ID der Notiz
+     * @return Anzahl der Einträge im Archiv
+     */
+    public Long countArchivedByNoteId(Long noteId) {
         return entityManager.createQuery(
-                "SELECT COUNT(h) FROM NoteHistory h WHERE h.note.id = :noteId",
-                Long.class)
+                "SELECT COUNT(a) FROM NoteHistoryArchive a WHERE a.noteId = :noteId", Long.class)
                 .setParameter("noteId", noteId)
                 .getSingleResult();
     }
 
     /**
-     * Löscht alle History-Einträge für eine bestimmte Notiz
+     * Löscht alle History-Einträge für eine bestimmte Notiz (auch im Archiv)
+     * und gibt ihre Verweise auf den content_store frei
      * @param noteId Die ID der Notiz
      * @return Anzahl der gelöschten Einträge
      */
     @Transactional
     public int deleteByNoteId(Long noteId) {
-        return entityManager.createQuery(
-                "DELETE FROM NoteHistory h WHERE h.note.id = :noteId")
-                .setParameter("noteId", noteId)
+        return deleteByNoteIds(List.of(noteId));
+    }
+
+    /**
+     * Löscht alle History-Einträge für mehrere Notizen mit einem Statement (und das Archiv mit einem weiteren)
+     * und gibt ihre Verweise auf den content_store frei
+     * @param noteIds Die IDs der Notizen
+     * @return Anzahl der gelöschten Einträge
+     */
+    @Transactional
+    public int deleteByNoteIds(Collection<Long> noteIds) {
+        if (noteIds.isEmpty()) {
+            return 0;
+        }
+        List<String> hashes = entityManager.createQuery(
+                "SELECT h.body.hash FROM NoteHistory h WHERE h.note.id IN :noteIds AND h.body IS NOT NULL",
+                String.class)
+                .setParameter("noteIds", noteIds)
+                .getResultList();
+        entityManager.createQuery(
+                "DELETE FROM NoteHistoryArchive a WHERE a.noteId IN :noteIds")
+                .setParameter("noteIds", noteIds)
+                .executeUpdate();
+        int deleted = entityManager.createQuery(
+                "DELETE FROM NoteHistory h WHERE h.note.id IN :noteIds")
+                .setParameter("noteIds", noteIds)
                 .executeUpdate();
+        contentStoreRepository.release(hashes);
+        return deleted;
     }
 }
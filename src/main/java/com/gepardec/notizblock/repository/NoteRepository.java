@@ -2,27 +2,70 @@ package com.gepardec.notizblock.repository;
 
 import com.gepardec.notizblock.entity.Note;
 import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.NoteCursor;
+import com.gepardec.notizblock.model.NoteRecord;
+import com.gepardec.notizblock.model.NoteSummary;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository für Datenbankoperationen auf Note-Entities
  * Nutzt CDI und JPA für Dependency Injection und Persistierung
  */
 @ApplicationScoped
+@Monitored
 public class NoteRepository {
 
+    // Erlaubte Sortierfelder für findPage (Schutz vor JPQL-Injection)
+    private static final Set<String> SORTABLE_FIELDS = Set.of("title", "createdAt");
+
+    // Projektion für Listenansichten: liest statt des Inhalts (BLOB) nur die Spalte preview
+    private static final String SUMMARY_SELECT =
+            "SELECT new com.gepardec.notizblock.model.NoteSummary(" +
+            "n.id, n.title, n.preview, n.createdAt, n.updatedAt) " +
+            "FROM Note n";
+
+    // Projektion mit Inhalt für Massenverarbeitung, lädt den Inhalt per Join statt einzeln pro Notiz
+    private static final String RECORD_SELECT =
+            "SELECT new com.gepardec.notizblock.model.NoteRecord(" +
+            "n.id, n.version, n.title, c.text, n.createdAt, n.updatedAt) " +
+            "FROM Note n JOIN n.body c";
+
     @PersistenceContext(unitName = "NotizblockPU")
     private EntityManager entityManager;
 
     @Inject
     private NoteHistoryRepository historyRepository;
 
+    @Inject
+    private HistoryOutboxRepository historyOutboxRepository;
+
+    @Inject
+    private StatisticsRepository statisticsRepository;
+
+    @Inject
+    private ContentStoreRepository contentStoreRepository;
+
+    @Inject
+    private Event<NoteChangedEvent> noteChangedEvent;
+
     /**
      * Gibt alle Notizen zurück, sortiert nach Erstellungsdatum (neueste zuerst)
      * @return Liste aller Notizen
@@ -30,19 +73,163 @@ public class NoteRepository {
     public List<Note> findAll() {
         return entityManager.createQuery(
                 "SELECT n FROM Note n ORDER BY n.createdAt DESC", Note.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getResultList();
+    }
+
+    /**
+     * Lädt eine Seite von Notizzusammenfassungen mit Sortierung und Titelfilter direkt aus der Datenbank
+     * @param first Index des ersten Eintrags
+     * @param pageSize Anzahl der Einträge pro Seite
+     * @param sortField Sortierfeld (title oder createdAt), null für Standardsortierung
+     * @param ascending true für aufsteigende Sortierung
+     * @param titleFilter Teilstring, der im Titel enthalten sein muss (ohne Beachtung der Groß-/Kleinschreibung)
+     * @return Liste der Zusammenfassungen dieser Seite
+     */
+    public List<NoteSummary> findPage(int first, int pageSize, String sortField, boolean ascending, String titleFilter) {
+        String direction = ascending ? "ASC" : "DESC";
+        String orderBy = sortField != null && SORTABLE_FIELDS.contains(sortField)
+                ? "n." + sortField + " " + direction + ", n.id " + direction
+                : "n.createdAt DESC, n.id DESC";
+
+        TypedQuery<NoteSummary> query = entityManager.createQuery(
+                SUMMARY_SELECT + titleFilterClause(titleFilter) + " ORDER BY " + orderBy, NoteSummary.class)
+                .setFirstResult(first)
+                .setMaxResults(pageSize)
+                .setHint(HibernateHints.HINT_CACHEABLE, true);
+        if (hasText(titleFilter)) {
+            query.setParameter("titleFilter", likePattern(titleFilter));
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Keyset-Pagination: lädt die nächsten Notizen nach dem Cursor (neueste zuerst)
+     * Die Laufzeit ist dank des Index auf (createdAt, id) unabhängig von der Seitentiefe
+     * @param after Cursor des letzten bereits geladenen Eintrags, null für die erste Seite
+     * @param limit Maximale Anzahl der Einträge
+     * @return Zusammenfassungen nach dem Cursor, sortiert nach createdAt DESC, id DESC
+     */
+    public List<NoteSummary> findNextPage(NoteCursor after, int limit) {
+        if (after == null) {
+            return entityManager.createQuery(
+                    SUMMARY_SELECT + " ORDER BY n.createdAt DESC, n.id DESC", NoteSummary.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return entityManager.createQuery(
+                SUMMARY_SELECT +
+                " WHERE n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)" +
+                " ORDER BY n.createdAt DESC, n.id DESC", NoteSummary.class)
+                .setParameter("createdAt", after.createdAt())
+                .setParameter("id", after.id())
+                .setMaxResults(limit)
                 .getResultList();
     }
 
     /**
-     * Findet eine Notiz anhand ihrer ID
+     * Keyset-Pagination: lädt die Notizen unmittelbar vor dem Cursor
+     * @param before Cursor des ersten aktuell angezeigten Eintrags
+     * @param limit Maximale Anzahl der Einträge
+     * @return Zusammenfassungen vor dem Cursor, sortiert nach createdAt DESC, id DESC
+     */
+    public List<NoteSummary> findPreviousPage(NoteCursor before, int limit) {
+        List<NoteSummary> notes = new ArrayList<>(entityManager.createQuery(
+                SUMMARY_SELECT +
+                " WHERE n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)" +
+                " ORDER BY n.createdAt ASC, n.id ASC", NoteSummary.class)
+                .setParameter("createdAt", before.createdAt())
+                .setParameter("id", before.id())
+                .setMaxResults(limit)
+                .getResultList());
+        // In aufsteigender Reihenfolge gelesen, für die Anzeige wieder umdrehen
+        Collections.reverse(notes);
+        return notes;
+    }
+
+    /**
+     * Zählt die Notizen, deren Titel den Filter enthält
+     * @param titleFilter Teilstring im Titel, null oder leer für alle Notizen
+     * @return Anzahl der passenden Notizen
+     */
+    public Long count(String titleFilter) {
+        if (!hasText(titleFilter)) {
+            return count();
+        }
+        return entityManager.createQuery(
+                "SELECT COUNT(n) FROM Note n" + titleFilterClause(titleFilter), Long.class)
+                .setParameter("titleFilter", likePattern(titleFilter))
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .getSingleResult();
+    }
+
+    /**
+     * Findet eine Notiz anhand ihrer ID, einschließlich des Inhalts
+     * Der Inhalt wird lazy geladen und muss daher noch im selben Persistence Context gelesen werden,
+     * danach ist die Notiz detached. Für Existenzprüfungen und Listen findSummaryById verwenden.
      * @param id Die ID der Notiz
      * @return Optional mit der gefundenen Notiz oder leer
      */
+    @Transactional
     public Optional<Note> findById(Long id) {
         Note note = entityManager.find(Note.class, id);
+        if (note != null) {
+            note.getContent();
+        }
         return Optional.ofNullable(note);
     }
 
+    /**
+     * Findet eine Notiz und sperrt die Zeile bis zum Ende der Transaktion
+     * Für Prüfen-und-Ändern-Abläufe (z.B. If-Match in der REST-API), damit keine parallele
+     * Änderung zwischen Prüfung und Update passieren kann. Muss in einer Transaktion aufgerufen werden.
+     * @param id Die ID der Notiz
+     * @return Optional mit der gesperrten Notiz oder leer
+     */
+    public Optional<Note> findByIdForUpdate(Long id) {
+        return Optional.ofNullable(entityManager.find(Note.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
+
+    /**
+     * Lädt Notizen blockweise in ID-Reihenfolge (z.B. für den Aufbau des Suchindex)
+     * @param afterId ID der letzten bereits gelesenen Notiz, null für den Anfang
+     * @param limit Maximale Anzahl der Einträge
+     * @return Notizen mit Inhalt und einer ID größer als afterId, aufsteigend nach ID
+     */
+    public List<NoteRecord> findBatch(Long afterId, int limit) {
+        return entityManager.createQuery(
+                RECORD_SELECT + " WHERE n.id > :afterId ORDER BY n.id ASC", NoteRecord.class)
+                .setParameter("afterId", afterId != null ? afterId : 0L)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Lädt Notizzusammenfassungen blockweise in ID-Reihenfolge (z.B. für den Aufbau des NoteReadModel)
+     * @param afterId ID der letzten bereits gelesenen Notiz, null für den Anfang
+     * @param limit Maximale Anzahl der Einträge
+     * @return Zusammenfassungen mit einer ID größer als afterId, aufsteigend nach ID
+     */
+    public List<NoteSummary> findSummaryBatch(Long afterId, int limit) {
+        return entityManager.createQuery(
+                SUMMARY_SELECT + " WHERE n.id > :afterId ORDER BY n.id ASC", NoteSummary.class)
+                .setParameter("afterId", afterId != null ? afterId : 0L)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Findet die Zusammenfassung einer Notiz anhand ihrer ID, ohne den vollständigen Inhalt zu laden
+     * @param id Die ID der Notiz
+     * @return Optional mit der Zusammenfassung oder leer
+     */
+    public Optional<NoteSummary> findSummaryById(Long id) {
+        return entityManager.createQuery(SUMMARY_SELECT + " WHERE n.id = :id", NoteSummary.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
     /**
      * Erstellt eine neue Notiz in der Datenbank
      * @param note Die zu speichernde Notiz
@@ -50,10 +237,14 @@ public class NoteRepository {
      */
     @Transactional
     public Note create(Note note) {
+        note.setBody(contentStoreRepository.store(note.getContent()));
         entityManager.persist(note);
         entityManager.flush();
-        // History-Eintrag für Erstellung
-        historyRepository.createHistoryEntry(note, ChangeType.CREATED);
+        statisticsRepository.noteCreated();
+        // History-Eintrag über den Outbox, geschrieben vom HistoryWriter nach dem Commit
+        NoteChangedEvent change = NoteChangedEvent.of(note, ChangeType.CREATED);
+        historyOutboxRepository.add(change, note.getBody().getHash());
+        noteChangedEvent.fire(change);
         return note;
     }
 
@@ -61,13 +252,56 @@ public class NoteRepository {
      * Aktualisiert eine bestehende Notiz
      * @param note Die zu aktualisierende Notiz
      * @return Die aktualisierte Notiz
+     * @throws NoteConflictException wenn die Notiz inzwischen geändert oder gelöscht wurde
      */
     @Transactional
     public Note update(Note note) {
-        Note merged = entityManager.merge(note);
-        entityManager.flush();
-        // History-Eintrag für Update
-        historyRepository.createHistoryEntry(merged, ChangeType.UPDATED);
+        return update(note, ChangeType.UPDATED);
+    }
+
+    /**
+     * Aktualisiert eine bestehende Notiz mit einem bestimmten Änderungstyp für die Historie
+     * @param note Die zu aktualisierende Notiz (mit der Version, auf der die Änderung beruht)
+     * @param changeType Der Änderungstyp (z.B. RESTORED beim Wiederherstellen einer Revision)
+     * @return Die aktualisierte Notiz
+     * @throws NoteConflictException wenn die Notiz inzwischen geändert oder gelöscht wurde
+     */
+    @Transactional
+    public Note update(Note note, ChangeType changeType) {
+        Note merged;
+        String releasedHash = null;
+        try {
+            // Gelöschte Notizen nicht durch merge wieder anlegen
+            Note current = note.getId() != null ? entityManager.find(Note.class, note.getId()) : null;
+            if (current == null) {
+                throw new OptimisticLockException("Notiz wurde gelöscht", null, note);
+            }
+            // Geänderten Inhalt ablegen, den bisherigen nach dem Flush freigeben
+            String content = note.getContent();
+            String hash = ContentStoreRepository.hash(content);
+            String currentHash = current.getBody().getHash();
+            if (hash.equals(currentHash)) {
+                note.setBody(current.getBody());
+            } else {
+                note.setBody(contentStoreRepository.acquire(hash, content));
+                releasedHash = currentHash;
+            }
+            // merge/flush vergleichen die Version, bei veraltetem Stand OptimisticLockException
+            merged = entityManager.merge(note);
+            // Der Inhalt ist transient und wird von merge nicht übernommen
+            merged.setContent(content);
+            entityManager.flush();
+        } catch (OptimisticLockException e) {
+            throw new NoteConflictException(note.getId(), e);
+        }
+        if (releasedHash != null) {
+            contentStoreRepository.release(List.of(releasedHash));
+        }
+        statisticsRepository.noteUpdated();
+        // History-Eintrag über den Outbox, geschrieben vom HistoryWriter nach dem Commit
+        NoteChangedEvent change = NoteChangedEvent.of(merged, changeType);
+        historyOutboxRepository.add(change, merged.getBody().getHash());
+        noteChangedEvent.fire(change);
         return merged;
     }
 
@@ -78,17 +312,21 @@ public class NoteRepository {
      */
     @Transactional
     public void delete(Long id) {
-        findById(id).ifPresent(note -> {
-            // Erst alle History-Einträge löschen (Foreign Key Constraint)
-            historyRepository.deleteByNoteId(id);
-
-            // Dann die Notiz selbst löschen
-            // Falls die Entity nicht managed ist, erst mergen
-            if (!entityManager.contains(note)) {
-                note = entityManager.merge(note);
-            }
-            entityManager.remove(note);
-        });
+        // Ohne findById, damit der Inhalt nicht nur zum Löschen geladen wird
+        Note note = entityManager.find(Note.class, id);
+        if (note == null) {
+            return;
+        }
+        String hash = note.getBody().getHash();
+        // Erst alle History-Einträge löschen (Foreign Key Constraint)
+        int historyEntries = historyRepository.deleteByNoteId(id);
+
+        // Dann die Notiz selbst löschen und danach ihren Inhalt freigeben
+        entityManager.remove(note);
+        entityManager.flush();
+        contentStoreRepository.release(List.of(hash));
+        statisticsRepository.notesDeleted(1, historyEntries);
+        noteChangedEvent.fire(NoteChangedEvent.deleted(id));
     }
 
     /**
@@ -102,13 +340,92 @@ public class NoteRepository {
         }
     }
 
+    /**
+     * Findet IDs von Notizen anhand von Kriterien, ohne Entities zu laden (für Bulk-Deletes)
+     * @param createdBefore Nur Notizen, die vor diesem Zeitpunkt erstellt wurden (null = ohne Einschränkung)
+     * @param titleFilter Teilstring im Titel (null = ohne Einschränkung)
+     * @param limit Maximale Anzahl der IDs
+     * @return IDs der passenden Notizen, aufsteigend sortiert
+     */
+    public List<Long> findIds(LocalDateTime createdBefore, String titleFilter, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT n.id FROM Note n WHERE 1 = 1");
+        if (createdBefore != null) {
+            jpql.append(" AND n.createdAt < :createdBefore");
+        }
+        if (hasText(titleFilter)) {
+            jpql.append(" AND LOWER(n.title) LIKE :titleFilter ESCAPE '\\'");
+        }
+        TypedQuery<Long> query = entityManager.createQuery(jpql + " ORDER BY n.id ASC", Long.class)
+                .setMaxResults(limit);
+        if (createdBefore != null) {
+            query.setParameter("createdBefore", createdBefore);
+        }
+        if (hasText(titleFilter)) {
+            query.setParameter("titleFilter", likePattern(titleFilter));
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Löscht mehrere Notizen samt Historie mit mengenbasierten Statements, ohne Entities zu laden
+     * Wird vom NoteBulkRepository pro Chunk in einer eigenen Transaktion aufgerufen
+     * @param ids Die IDs der zu löschenden Notizen
+     * @return Anzahl der gelöschten Notizen
+     */
+    @Transactional
+    public int deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Nur tatsächlich vorhandene IDs melden
+        List<Long> existingIds = entityManager.createQuery(
+                "SELECT n.id FROM Note n WHERE n.id IN :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        if (existingIds.isEmpty()) {
+            return 0;
+        }
+
+        // Inhalte der Notizen, nach dem Löschen freizugeben
+        List<String> hashes = entityManager.createQuery(
+                "SELECT n.body.hash FROM Note n WHERE n.id IN :ids", String.class)
+                .setParameter("ids", existingIds)
+                .getResultList();
+
+        // Erst alle History-Einträge löschen (Foreign Key Constraint)
+        int historyEntries = historyRepository.deleteByNoteIds(existingIds);
+        int deleted = entityManager.createQuery("DELETE FROM Note n WHERE n.id IN :ids")
+                .setParameter("ids", existingIds)
+                .executeUpdate();
+        contentStoreRepository.release(hashes);
+        statisticsRepository.notesDeleted(deleted, historyEntries);
+
+        existingIds.forEach(id -> noteChangedEvent.fire(NoteChangedEvent.deleted(id)));
+        return deleted;
+    }
+
     /**
      * Zählt die Anzahl aller Notizen
+     * Liest den fortlaufend gepflegten Zähler statt einer COUNT-Abfrage
      * @return Anzahl der Notizen
      */
     public Long count() {
-        return entityManager.createQuery(
-                "SELECT COUNT(n) FROM Note n", Long.class)
-                .getSingleResult();
+        return statisticsRepository.countNotes();
+    }
+
+    private static String titleFilterClause(String titleFilter) {
+        return hasText(titleFilter) ? " WHERE LOWER(n.title) LIKE :titleFilter ESCAPE '\\'" : "";
+    }
+
+    private static String likePattern(String filter) {
+        String escaped = filter.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
     }
 }
@@ -0,0 +1,251 @@
+package com.gepardec.notizblock.repository;
+
+import com.gepardec.notizblock.entity.Note;
+import com.gepardec.notizblock.entity.NoteHistory;
+import com.gepardec.notizblock.history.Revision;
+import com.gepardec.notizblock.history.RevisionCodec;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.NoteHistoryRecord;
+import com.gepardec.notizblock.model.NoteRecord;
+import com.gepardec.notizblock.model.NoteSummary;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repository für den Export und Import aller Notizen und History-Einträge
+ * Der Export liest über einen Datenbank-Cursor (Notizen als Projektion, History-Einträge als Entities
+ * mit regelmäßig geleertem Persistence Context), der Speicherbedarf bleibt damit unabhängig von der
+ * Anzahl der Zeilen konstant.
+ * Der Import schreibt Chunks per JDBC-Batch (MERGE, IDs werden übernommen), jeder Chunk
+ * in der Transaktion des Aufrufers.
+ *
+ * Die Exportdatei ist unabhängig vom content_store: Snapshots der Historie werden mit eingebettetem
+ * Inhalt geschrieben. Der Import legt Inhalte über das ContentStoreRepository ab und gibt die Verweise
+ * überschriebener Zeilen frei.
+ */
+@ApplicationScoped
+@Monitored
+public class NoteTransferRepository {
+
+    // Anzahl der Zeilen pro Fetch und zwischen zwei EntityManager.clear()
+    private static final int FETCH_SIZE = 500;
+
+    private static final String MERGE_NOTE =
+            "MERGE INTO notes (id, version, title, content_hash, preview, createdAt, updatedAt) KEY (id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String MERGE_HISTORY =
+            "MERGE INTO note_history (id, note_id, changeType, changedAt, revision, snapshot, payload, content_hash) "
+                    + "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_HISTORY = "DELETE FROM note_history WHERE id = ?";
+
+    @PersistenceContext(unitName = "NotizblockPU")
+    private EntityManager entityManager;
+
+    /**
+     * Liest alle Notizen sortiert nach ID und übergibt sie einzeln an den Consumer
+     * @param sink Empfänger der Datensätze (z.B. ein Writer auf den HTTP-Body)
+     * @return Anzahl der exportierten Notizen
+     */
+    @Transactional
+    public long exportNotes(Consumer<NoteRecord> sink) {
+        // Projektion statt Entities: der Inhalt kommt per Join mit derselben Zeile, nicht per Einzelabfrage
+        try (Stream<NoteRecord> notes = entityManager.createQuery(
+                        "SELECT new com.gepardec.notizblock.model.NoteRecord("
+                                + "n.id, n.version, n.title, c.text, n.createdAt, n.updatedAt) "
+                                + "FROM Note n JOIN n.body c ORDER BY n.id ASC", NoteRecord.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            long count = 0;
+            for (NoteRecord note : (Iterable<NoteRecord>) notes::iterator) {
+                sink.accept(note);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Liest alle History-Einträge sortiert nach ID und übergibt sie einzeln an den Consumer
+     * @param sink Empfänger der Datensätze
+     * @return Anzahl der exportierten Einträge
+     */
+    @Transactional
+    public long exportHistory(Consumer<NoteHistoryRecord> sink) {
+        try (Stream<NoteHistory> entries = entityManager.createQuery(
+                        "SELECT h FROM NoteHistory h LEFT JOIN FETCH h.body ORDER BY h.id ASC", NoteHistory.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS)
+                .getResultStream()) {
+            long count = 0;
+            for (NoteHistory entry : (Iterable<NoteHistory>) entries::iterator) {
+                // getNote() ist ein Lazy-Proxy, getId() lädt die Notiz nicht
+                sink.accept(new NoteHistoryRecord(entry.getId(), entry.getNote().getId(), entry.getChangeType(),
+                        entry.getChangedAt(), entry.getRevision(), entry.isSnapshot(), exportPayload(entry)));
+                if (++count % FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Snapshot-Verweise für die Exportdatei mit eingebettetem Inhalt kodieren
+     */
+    private static byte[] exportPayload(NoteHistory entry) {
+        if (entry.getBody() == null) {
+            return entry.getPayload();
+        }
+        Revision revision = RevisionCodec.decode(entry.getPayload(), entry.getBody().getText(), null,
+                entry.getRevision(), entry.getChangedAt());
+        return RevisionCodec.encodeSnapshot(revision.getTitle(), revision.getContent());
+    }
+
+    /**
+     * Schreibt einen Chunk Notizen per JDBC-Batch (vorhandene IDs werden überschrieben)
+     * @param chunk Die Notizen
+     * @return Anzahl der geschriebenen Notizen
+     */
+    @Transactional
+    public int importNotes(List<NoteRecord> chunk) {
+        // Verweise der Notizen, die der Import überschreibt
+        List<String> replaced = entityManager.createQuery(
+                "SELECT n.body.hash FROM Note n WHERE n.id IN :ids", String.class)
+                .setParameter("ids", chunk.stream().map(NoteRecord::id).toList())
+                .getResultList();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_NOTE)) {
+                for (NoteRecord note : chunk) {
+                    String hash = ContentStoreRepository.hash(note.content());
+                    ContentStoreRepository.acquire(connection, hash, note.content());
+                    statement.setLong(1, note.id());
+                    statement.setLong(2, note.version());
+                    statement.setString(3, note.title());
+                    statement.setString(4, hash);
+                    statement.setString(5, NoteSummary.previewOf(note.content()));
+                    statement.setObject(6, note.createdAt());
+                    statement.setObject(7, note.updatedAt());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            ContentStoreRepository.release(connection, replaced);
+        });
+        return chunk.size();
+    }
+
+    /**
+     * Schreibt einen Chunk History-Einträge per JDBC-Batch (vorhandene IDs werden überschrieben)
+     * Die zugehörigen Notizen müssen bereits existieren. Vorhandene Einträge mit derselben Revision
+     * einer Notiz, aber anderer ID werden vorher gelöscht, der Import ersetzt sie.
+     * @param chunk Die History-Einträge
+     * @return Anzahl der geschriebenen Einträge
+     */
+    @Transactional
+    public int importHistory(List<NoteHistoryRecord> chunk) {
+        List<Long> conflicting = findConflictingHistory(chunk);
+        // Verweise der History-Einträge, die der Import überschreibt oder ersetzt
+        List<Long> replacedIds = new ArrayList<>(conflicting);
+        chunk.forEach(entry -> replacedIds.add(entry.id()));
+        List<String> replaced = entityManager.createQuery(
+                "SELECT h.body.hash FROM NoteHistory h WHERE h.id IN :ids AND h.body IS NOT NULL", String.class)
+                .setParameter("ids", replacedIds)
+                .getResultList();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            if (!conflicting.isEmpty()) {
+                try (PreparedStatement delete = connection.prepareStatement(DELETE_HISTORY)) {
+                    for (Long id : conflicting) {
+                        delete.setLong(1, id);
+                        delete.addBatch();
+                    }
+                    delete.executeBatch();
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_HISTORY)) {
+                for (NoteHistoryRecord entry : chunk) {
+                    byte[] payload = entry.payload();
+                    String hash = null;
+                    // Eingebetteten Inhalt eines Snapshots wie beim Schreiben der Historie im content_store ablegen
+                    if (payload != null && entry.snapshot() && !RevisionCodec.isSnapshotReference(payload)) {
+                        Revision revision = RevisionCodec.decode(payload, null, entry.revision(), entry.changedAt());
+                        if (revision.getContent() != null) {
+                            hash = ContentStoreRepository.hash(revision.getContent());
+                            ContentStoreRepository.acquire(connection, hash, revision.getContent());
+                            payload = RevisionCodec.encodeSnapshotReference(revision.getTitle());
+                        }
+                    }
+                    statement.setLong(1, entry.id());
+                    statement.setLong(2, entry.noteId());
+                    statement.setString(3, entry.changeType().name());
+                    statement.setObject(4, entry.changedAt());
+                    statement.setInt(5, entry.revision());
+                    statement.setBoolean(6, entry.snapshot());
+                    if (payload != null) {
+                        statement.setBytes(7, payload);
+                    } else {
+                        statement.setNull(7, Types.BLOB);
+                    }
+                    statement.setString(8, hash);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            ContentStoreRepository.release(connection, replaced);
+        });
+        return chunk.size();
+    }
+
+    /**
+     * Sucht vorhandene Einträge, die dieselbe Revision einer Notiz unter einer anderen ID belegen
+     * (Unique-Constraint auf note_id, revision)
+     * @return IDs der gefundenen Einträge
+     */
+    private List<Long> findConflictingHistory(List<NoteHistoryRecord> chunk) {
+        Map<String, Long> importedIds = new HashMap<>();
+        for (NoteHistoryRecord entry : chunk) {
+            importedIds.put(entry.noteId() + ":" + entry.revision(), entry.id());
+        }
+        List<Object[]> existing = entityManager.createQuery(
+                "SELECT h.id, h.note.id, h.revision FROM NoteHistory h WHERE h.note.id IN :noteIds", Object[].class)
+                .setParameter("noteIds", chunk.stream().map(NoteHistoryRecord::noteId).distinct().toList())
+                .getResultList();
+        List<Long> conflicting = new ArrayList<>();
+        for (Object[] row : existing) {
+            Long importedId = importedIds.get(row[1] + ":" + row[2]);
+            if (importedId != null && !importedId.equals(row[0])) {
+                conflicting.add((Long) row[0]);
+            }
+        }
+        return conflicting;
+    }
+
+    /**
+     * Leert Second-Level- und Query-Cache nach einem Import
+     * Die JDBC-Statements laufen an Hibernate vorbei, gecachte Einträge wären sonst veraltet
+     */
+    public void evictCaches() {
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictEntityData(Note.class);
+        sessionFactory.getCache().evictEntityData(NoteHistory.class);
+        sessionFactory.getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,83 @@
+package com.gepardec.notizblock.repository;
+
+import com.gepardec.notizblock.entity.HistoryOutboxEntry;
+import com.gepardec.notizblock.entity.Note;
+import com.gepardec.notizblock.entity.NoteHistory;
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.interceptor.Interceptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Hält die ID-Sequenzen mit den vorhandenen Daten synchron
+ * Bestehende Zeilen (z.B. aus der Zeit mit IDENTITY-IDs oder aus einem Import mit festen IDs) dürfen
+ * nicht mit neu vergebenen IDs kollidieren, daher wird jede Sequenz bei Bedarf hinter die höchste ID gesetzt.
+ * Läuft außerhalb von JTA direkt auf der DataSource, da ALTER SEQUENCE in H2 implizit committet.
+ */
+@ApplicationScoped
+public class SequenceRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(SequenceRepository.class.getName());
+
+    @Resource(lookup = "java:jboss/datasources/NotizblockDS")
+    private DataSource dataSource;
+
+    /**
+     * Gleicht die Sequenzen beim Start ab, bevor andere Komponenten Daten schreiben
+     */
+    void onStartup(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+                   @Initialized(ApplicationScoped.class) Object event) {
+        alignSequences();
+    }
+
+    /**
+     * Setzt alle ID-Sequenzen hinter die höchste vorhandene ID ihrer Tabelle
+     */
+    public void alignSequences() {
+        try (Connection connection = dataSource.getConnection()) {
+            alignSequence(connection, Note.SEQUENCE_NAME, "notes");
+            alignSequence(connection, NoteHistory.SEQUENCE_NAME, "note_history");
+            alignSequence(connection, HistoryOutboxEntry.SEQUENCE_NAME, "history_outbox");
+        } catch (SQLException e) {
+            throw new IllegalStateException("ID-Sequenzen konnten nicht abgeglichen werden", e);
+        }
+    }
+
+    private void alignSequence(Connection connection, String sequenceName, String tableName) throws SQLException {
+        long nextId = queryLong(connection, "SELECT COALESCE(MAX(id), 0) + 1 FROM " + tableName);
+        long nextValue;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?")) {
+            statement.setString(1, sequenceName.toUpperCase(Locale.ROOT));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                nextValue = resultSet.next() ? resultSet.getLong(1) : Long.MAX_VALUE;
+            }
+        }
+        // Mit Pooled-Lo ist der Sequenzwert die erste ID des nächsten Blocks
+        if (nextValue < nextId) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("ALTER SEQUENCE " + sequenceName + " RESTART WITH " + nextId);
+            }
+            LOGGER.info(() -> "Sequenz " + sequenceName + " auf " + nextId + " gesetzt");
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.gepardec.notizblock.repository;
+
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.DailyStatistics;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Repository für die fortlaufend gepflegten Zähler (Tabellen aus V4__statistics.sql)
+ * Anzahl der Notizen, History-Einträge gesamt und pro Notiz sowie Änderungen pro Tag. Die Zähler werden
+ * per JDBC in der Transaktion des Aufrufers geändert, also zusammen mit den gezählten Zeilen committet
+ * oder zurückgerollt (an Hibernate vorbei, damit keine Cache-Regionen invalidiert werden).
+ * Lesen ist ein Zugriff über den Primärschlüssel, unabhängig von der Datenmenge.
+ *
+ * Globale Zähler und Tagesstatistik sind auf COUNTER_SLOTS Zeilen verteilt:
+ * eine Transaktion ändert nur den Slot ihres Threads, parallele Neuanlagen und Löschungen warten so
+ * nicht alle auf dieselbe Zeile. Gelesen wird die Summe aller Slots.
+ *
+ * Die Zeilen für die Tagesstatistik legt der DailyStatisticsJob im Voraus an, damit parallele
+ * Transaktionen am ersten Schreibzugriff eines Tages nicht beide einfügen wollen.
+ */
+@ApplicationScoped
+@Monitored
+public class StatisticsRepository {
+
+    private static final Logger LOGGER = Logger.getLogger(StatisticsRepository.class.getName());
+
+    private static final String NOTES = "notes";
+    private static final String HISTORY = "history";
+
+    // Anzahl der Zeilen pro Zähler und Tag, muss zu den in V4__statistics.sql angelegten Slots passen
+    private static final int COUNTER_SLOTS = 16;
+
+    // Anzahl der Tage ab heute, für die Zeilen der Tagesstatistik vorhanden sein sollen
+    private static final int PREPARED_DAYS = 7;
+
+    private static final String INCREMENT_COUNTER =
+            "UPDATE note_counter SET counter_value = counter_value + ? WHERE name = ? AND slot = ?";
+
+    private static final String INCREMENT_HISTORY_COUNTER =
+            "MERGE INTO note_history_counter c USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT))) s (note_id, entries) "
+                    + "ON c.note_id = s.note_id "
+                    + "WHEN MATCHED THEN UPDATE SET c.entries = c.entries + s.entries "
+                    + "WHEN NOT MATCHED THEN INSERT (note_id, entries) VALUES (s.note_id, s.entries)";
+
+    private static final String INCREMENT_CREATED = incrementDaily("created");
+    private static final String INCREMENT_UPDATED = incrementDaily("updated");
+    private static final String INCREMENT_DELETED = incrementDaily("deleted");
+
+    private static final String PREPARE_DAY =
+            "MERGE INTO note_daily_statistics d USING (VALUES (CAST(? AS DATE), CAST(? AS INTEGER))) s (stat_date, slot) "
+                    + "ON d.stat_date = s.stat_date AND d.slot = s.slot "
+                    + "WHEN NOT MATCHED THEN INSERT (stat_date, slot, created, updated, deleted) "
+                    + "VALUES (s.stat_date, s.slot, 0, 0, 0)";
+
+    private static final String SUM_COUNTER =
+            "SELECT COALESCE(SUM(counter_value), 0) FROM note_counter WHERE name = :key";
+
+    @PersistenceContext(unitName = "NotizblockPU")
+    private EntityManager entityManager;
+
+    @Resource(lookup = "java:jboss/datasources/NotizblockDS")
+    private DataSource dataSource;
+
+    /**
+     * Legt fehlende Zeilen der Tagesstatistik für heute und die folgenden Tage an
+     * Läuft außerhalb von JTA mit Auto-Commit, damit die Zeilen vor den zählenden Transaktionen sichtbar sind
+     */
+    public void prepareDays() {
+        LocalDate today = LocalDate.now();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PREPARE_DAY)) {
+            for (int i = 0; i <= PREPARED_DAYS; i++) {
+                for (int slot = 0; slot < COUNTER_SLOTS; slot++) {
+                    statement.setObject(1, today.plusDays(i));
+                    statement.setInt(2, slot);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            // Zählen funktioniert auch ohne vorbereitete Zeilen, nur nicht ganz ohne Konfliktrisiko
+            LOGGER.log(Level.WARNING, "Tagesstatistik konnte nicht vorbereitet werden", e);
+        }
+    }
+
+    /**
+     * Zählt eine neu erstellte Notiz
+     */
+    public void noteCreated() {
+        increment(NOTES, 1L);
+        execute(INCREMENT_CREATED, LocalDate.now(), 1L, slot());
+    }
+
+    /**
+     * Zählt eine Änderung an einer Notiz (Bearbeiten, Wiederherstellen, Konfliktlösung)
+     */
+    public void noteUpdated() {
+        execute(INCREMENT_UPDATED, LocalDate.now(), 1L, slot());
+    }
+
+    /**
+     * Zählt gelöschte Notizen samt ihrer History-Einträge
+     * Die Zähler pro Notiz entfernt die Datenbank über ON DELETE CASCADE
+     * @param notes Anzahl der gelöschten Notizen
+     * @param historyEntries Anzahl der mitgelöschten History-Einträge
+     */
+    public void notesDeleted(int notes, long historyEntries) {
+        if (notes == 0) {
+            return;
+        }
+        increment(NOTES, (long) -notes);
+        increment(HISTORY, -historyEntries);
+        execute(INCREMENT_DELETED, LocalDate.now(), (long) notes, slot());
+    }
+
+    /**
+     * Zählt geschriebene History-Einträge
+     * @param entriesPerNote Anzahl der neuen Einträge pro Notiz-ID
+     */
+    public void historyWritten(Map<Long, Long> entriesPerNote) {
+        if (entriesPerNote.isEmpty()) {
+            return;
+        }
+        long total = entriesPerNote.values().stream().mapToLong(Long::longValue).sum();
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INCREMENT_HISTORY_COUNTER)) {
+                for (Map.Entry<Long, Long> entry : entriesPerNote.entrySet()) {
+                    statement.setLong(1, entry.getKey());
+                    statement.setLong(2, entry.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        increment(HISTORY, total);
+    }
+
+    /**
+     * Zählt aus der Historie entfernte Einträge (archiviert oder zusammengefasst)
+     * @param noteId Die ID der Notiz
+     * @param entries Anzahl der entfernten Einträge
+     */
+    public void historyRemoved(Long noteId, long entries) {
+        if (entries == 0) {
+            return;
+        }
+        execute("UPDATE note_history_counter SET entries = entries - ? WHERE note_id = ?", entries, noteId);
+        increment(HISTORY, -entries);
+    }
+
+    /**
+     * @return Anzahl aller Notizen
+     */
+    public long countNotes() {
+        return queryLong(SUM_COUNTER, NOTES);
+    }
+
+    /**
+     * @return Anzahl aller History-Einträge (ohne Archiv)
+     */
+    public long countHistoryEntries() {
+        return queryLong(SUM_COUNTER, HISTORY);
+    }
+
+    /**
+     * @param noteId Die ID der Notiz
+     * @return Anzahl der History-Einträge der Notiz (ohne Archiv)
+     */
+    public long countHistoryEntries(Long noteId) {
+        return queryLong("SELECT entries FROM note_history_counter WHERE note_id = :key", noteId);
+    }
+
+    /**
+     * Findet die IDs aller Notizen mit mehr als minEntries History-Einträgen
+     * @param minEntries Mindestanzahl (exklusiv)
+     * @return IDs aufsteigend sortiert
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> findNoteIdsWithMoreHistoryEntriesThan(long minEntries) {
+        return entityManager.createNativeQuery(
+                "SELECT note_id FROM note_history_counter WHERE entries > :minEntries ORDER BY note_id")
+                .unwrap(NativeQuery.class)
+                .addScalar("note_id", Long.class)
+                .setParameter("minEntries", minEntries)
+                .getResultList();
+    }
+
+    /**
+     * Lädt die Tagesstatistik ab einem Datum bis heute
+     * @param from Erster Tag (inklusive)
+     * @return Ein Eintrag pro Tag mit Änderungen, neuester Tag zuerst
+     */
+    @SuppressWarnings("unchecked")
+    public List<DailyStatistics> findDailyStatistics(LocalDate from) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                "SELECT stat_date, SUM(created) AS created, SUM(updated) AS updated, SUM(deleted) AS deleted "
+                        + "FROM note_daily_statistics WHERE stat_date BETWEEN :from AND :to "
+                        + "GROUP BY stat_date HAVING SUM(created + updated + deleted) > 0 "
+                        + "ORDER BY stat_date DESC")
+                .unwrap(NativeQuery.class)
+                .addScalar("stat_date", LocalDate.class)
+                .addScalar("created", Long.class)
+                .addScalar("updated", Long.class)
+                .addScalar("deleted", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", LocalDate.now())
+                .getResultList();
+        return rows.stream()
+                .map(row -> new DailyStatistics((LocalDate) row[0], (Long) row[1], (Long) row[2], (Long) row[3]))
+                .toList();
+    }
+
+    /**
+     * Berechnet die Zähler für Notizen und History-Einträge neu (z.B. nach einem Import per JDBC)
+     * Der Stand landet in Slot 0, die übrigen Slots werden zurückgesetzt. Die Tagesstatistik bleibt unverändert
+     */
+    @Transactional
+    public void recalculate() {
+        session().doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE note_counter SET counter_value = "
+                        + "CASE WHEN slot = 0 THEN (SELECT COUNT(*) FROM notes) ELSE 0 END "
+                        + "WHERE name = '" + NOTES + "'");
+                statement.executeUpdate("UPDATE note_counter SET counter_value = "
+                        + "CASE WHEN slot = 0 THEN (SELECT COUNT(*) FROM note_history) ELSE 0 END "
+                        + "WHERE name = '" + HISTORY + "'");
+                statement.executeUpdate("DELETE FROM note_history_counter");
+                statement.executeUpdate("INSERT INTO note_history_counter (note_id, entries) "
+                        + "SELECT note_id, COUNT(*) FROM note_history GROUP BY note_id");
+            }
+        });
+    }
+
+    private void increment(String name, long delta) {
+        execute(INCREMENT_COUNTER, delta, name, slot());
+    }
+
+    private void execute(String sql, Object... parameters) {
+        session().doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Slot des aktuellen Threads; alle Zähler einer Transaktion liegen so im selben Slot
+     */
+    private static int slot() {
+        return (int) Math.floorMod(Thread.currentThread().threadId(), (long) COUNTER_SLOTS);
+    }
+
+    private long queryLong(String sql, Object key) {
+        List<?> result = entityManager.createNativeQuery(sql)
+                .setParameter("key", key)
+                .getResultList();
+        return result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    /**
+     * MERGE, das eine Spalte der Tagesstatistik in einem Slot erhöht (legt die Zeile an, falls sie nicht
+     * vorbereitet wurde)
+     */
+    private static String incrementDaily(String column) {
+        return "MERGE INTO note_daily_statistics d "
+                + "USING (VALUES (CAST(? AS DATE), CAST(? AS BIGINT), CAST(? AS INTEGER))) s (stat_date, delta, slot) "
+                + "ON d.stat_date = s.stat_date AND d.slot = s.slot "
+                + "WHEN MATCHED THEN UPDATE SET d." + column + " = d." + column + " + s.delta "
+                + "WHEN NOT MATCHED THEN INSERT (stat_date, slot, created, updated, deleted) VALUES (s.stat_date, s.slot, "
+                + ("created".equals(column) ? "s.delta" : "0") + ", "
+                + ("updated".equals(column) ? "s.delta" : "0") + ", "
+                + ("deleted".equals(column) ? "s.delta" : "0") + ")";
+    }
+}
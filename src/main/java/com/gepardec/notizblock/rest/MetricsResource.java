@@ -0,0 +1,23 @@
+package com.gepardec.notizblock.rest;
+
+import com.gepardec.notizblock.metrics.MetricsRegistry;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+
+/**
+ * Metriken im Prometheus-Textformat unter /api/metrics
+ */
+@Path("metrics")
+public class MetricsResource {
+
+    @Inject
+    private MetricsRegistry metricsRegistry;
+
+    @GET
+    @Produces("text/plain; version=0.0.4; charset=utf-8")
+    public String scrape() {
+        return metricsRegistry.scrape();
+    }
+}
@@ -0,0 +1,303 @@
+package com.gepardec.notizblock.rest;
+
+import com.gepardec.notizblock.entity.Note;
+import com.gepardec.notizblock.model.HistoryEntrySummary;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import com.gepardec.notizblock.repository.NoteConflictException;
+import com.gepardec.notizblock.repository.NoteHistoryRepository;
+import com.gepardec.notizblock.repository.NoteRepository;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.JsonString;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * REST/JSON-API für Notizen und ihre Historie unter /api/notes
+ * Einzelne Notizen tragen einen starken ETag aus der Versionsnummer und Last-Modified aus updatedAt.
+ * Listen tragen einen starken ETag aus einem SHA-256-Digest über den Stand ihrer Einträge.
+ * GET mit passendem If-None-Match/If-Modified-Since liefert 304 ohne Body,
+ * PUT/DELETE mit If-Match schützen vor verlorenen Updates (412 bei abweichendem Stand).
+ * PUT arbeitet optimistisch über die Versionsspalte, auch ein zwischen Prüfung und Update
+ * gespeicherter Stand führt zu 412.
+ *
+ * GET    /api/notes?page=0&size=20&title=...  Seite mit Zusammenfassungen (neueste zuerst)
+ * GET    /api/notes/{id}                      Vollständige Notiz
+ * POST   /api/notes                           Neue Notiz ({"title": ..., "content": ...})
+ * PUT    /api/notes/{id}                      Notiz ändern
+ * DELETE /api/notes/{id}                      Notiz samt Historie löschen
+ * GET    /api/notes/{id}/history?cursor=&size=20  Seite der Änderungshistorie (neueste Revision zuerst)
+ */
+@Path("notes")
+@Produces(MediaType.APPLICATION_JSON)
+public class NoteResource {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Länge der Listen-ETags: 128 Bit des SHA-256-Digests
+    private static final int ETAG_DIGEST_BYTES = 16;
+
+    // Grenzen wie in der Note-Entity
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_CONTENT_LENGTH = Note.MAX_CONTENT_LENGTH;
+
+    @Inject
+    private NoteRepository noteRepository;
+
+    @Inject
+    private NoteHistoryRepository historyRepository;
+
+    @Inject
+    private NoteReadModel noteReadModel;
+
+    @Context
+    private Request request;
+
+    @Context
+    private UriInfo uriInfo;
+
+    @GET
+    public Response list(@QueryParam("page") @DefaultValue("0") int page,
+                         @QueryParam("size") @DefaultValue("" + DEFAULT_PAGE_SIZE) int size,
+                         @QueryParam("title") String titleFilter) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("page >= 0 und 1 <= size <= " + MAX_PAGE_SIZE + " erwartet");
+        }
+        List<NoteSummary> notes = noteReadModel.findPage(page * size, size, "createdAt", false, titleFilter);
+        long total = noteReadModel.count(titleFilter);
+
+        // Starker ETag über den Stand aller Einträge der Seite
+        StringBuilder version = new StringBuilder().append(page).append(':').append(size).append(':').append(total);
+        notes.forEach(note -> version.append(':').append(note.getId()).append('-').append(versionOf(note.getUpdatedAt())));
+        EntityTag entityTag = digestTag(version);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        JsonArrayBuilder items = Json.createArrayBuilder();
+        notes.forEach(note -> items.add(toJson(note)));
+        JsonObject body = Json.createObjectBuilder()
+                .add("items", items)
+                .add("page", page)
+                .add("size", size)
+                .add("total", total)
+                .build();
+        return Response.ok(body).tag(entityTag).build();
+    }
+
+    @GET
+    @Path("{id}")
+    public Response get(@PathParam("id") Long id) {
+        Note note = noteRepository.findById(id).orElseThrow(() -> notFound(id));
+        EntityTag entityTag = entityTag(note);
+        Date lastModified = lastModified(note);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(lastModified, entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+        return Response.ok(toJson(note)).tag(entityTag).lastModified(lastModified).build();
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response create(JsonObject body) {
+        Note note = new Note(requiredText(body, "title", MAX_TITLE_LENGTH),
+                requiredText(body, "content", MAX_CONTENT_LENGTH));
+        noteRepository.create(note);
+        return Response.created(uriInfo.getAbsolutePathBuilder().path(String.valueOf(note.getId())).build())
+                .entity(toJson(note))
+                .tag(entityTag(note))
+                .lastModified(lastModified(note))
+                .build();
+    }
+
+    @PUT
+    @Path("{id}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response update(@PathParam("id") Long id, JsonObject body) {
+        String title = requiredText(body, "title", MAX_TITLE_LENGTH);
+        String content = requiredText(body, "content", MAX_CONTENT_LENGTH);
+
+        Note note = noteRepository.findById(id).orElseThrow(() -> notFound(id));
+        checkPreconditions(note);
+
+        note.setTitle(title);
+        note.setContent(content);
+        Note updated;
+        try {
+            // Die geprüfte Version wird beim Update erneut verglichen
+            updated = noteRepository.update(note);
+        } catch (NoteConflictException e) {
+            throw new WebApplicationException(Response.status(Response.Status.PRECONDITION_FAILED).build());
+        }
+        return Response.ok(toJson(updated))
+                .tag(entityTag(updated))
+                .lastModified(lastModified(updated))
+                .build();
+    }
+
+    @DELETE
+    @Path("{id}")
+    @Transactional
+    public Response delete(@PathParam("id") Long id) {
+        Note note = noteRepository.findByIdForUpdate(id).orElseThrow(() -> notFound(id));
+        checkPreconditions(note);
+        noteRepository.delete(id);
+        return Response.noContent().build();
+    }
+
+    /**
+     * Keyset-Pagination über die Historie, neueste Revision zuerst
+     * cursor ist die Revision des letzten Eintrags der vorigen Seite (nextCursor der Antwort), ohne cursor
+     * beginnt die Liste bei der neuesten Revision. nextCursor fehlt auf der letzten Seite.
+     */
+    @GET
+    @Path("{id}/history")
+    public Response history(@PathParam("id") Long id,
+                            @QueryParam("cursor") Integer cursor,
+                            @QueryParam("size") @DefaultValue("" + DEFAULT_PAGE_SIZE) int size) {
+        if ((cursor != null && cursor < 1) || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("cursor >= 1 und 1 <= size <= " + MAX_PAGE_SIZE + " erwartet");
+        }
+        if (noteReadModel.findSummaryById(id).isEmpty()) {
+            throw notFound(id);
+        }
+        // Ein Eintrag mehr, um zu erkennen, ob eine weitere Seite folgt
+        List<HistoryEntrySummary> entries = historyRepository.findPageByNoteId(id, cursor, size + 1);
+        boolean hasNext = entries.size() > size;
+        List<HistoryEntrySummary> page = hasNext ? entries.subList(0, size) : entries;
+
+        // Starker ETag über die Einträge der Seite und ob eine weitere folgt
+        StringBuilder version = new StringBuilder().append(id).append(':').append(size).append(':').append(hasNext);
+        page.forEach(entry -> version.append(':').append(entry.getId()).append('-').append(entry.getRevision()));
+        EntityTag entityTag = digestTag(version);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.build();
+        }
+
+        JsonArrayBuilder items = Json.createArrayBuilder();
+        for (HistoryEntrySummary entry : page) {
+            items.add(Json.createObjectBuilder()
+                    .add("id", entry.getId())
+                    .add("revision", entry.getRevision())
+                    .add("changeType", entry.getChangeType().name())
+                    .add("changedAt", entry.getChangedAt().toString()));
+        }
+        JsonObjectBuilder body = Json.createObjectBuilder()
+                .add("noteId", id)
+                .add("items", items)
+                .add("size", size);
+        if (hasNext) {
+            body.add("nextCursor", page.get(page.size() - 1).getRevision());
+        }
+        return Response.ok(body.build()).tag(entityTag).build();
+    }
+
+    /**
+     * Wirft 412, wenn If-Match/If-Unmodified-Since nicht zum aktuellen Stand passen
+     */
+    private void checkPreconditions(Note note) {
+        Response.ResponseBuilder failed = request.evaluatePreconditions(lastModified(note), entityTag(note));
+        if (failed != null) {
+            throw new WebApplicationException(failed.tag(entityTag(note)).build());
+        }
+    }
+
+    /**
+     * Starker ETag aus den ersten 128 Bit des SHA-256-Digests über eine Zustandsbeschreibung
+     * Gleicher Zustand ergibt denselben JSON-Body, jede Änderung einen anderen ETag
+     */
+    private static EntityTag digestTag(CharSequence state) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.toString().getBytes(StandardCharsets.UTF_8));
+            return new EntityTag(HexFormat.of().formatHex(digest, 0, ETAG_DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 nicht verfügbar", e);
+        }
+    }
+
+    private static EntityTag entityTag(Note note) {
+        return new EntityTag(note.getId() + "-" + note.getVersion());
+    }
+
+    /**
+     * Mikrosekunden seit der Epoche (Genauigkeit der Datenbankspalte), damit frisch gespeicherte
+     * und neu geladene Zusammenfassungen denselben ETag haben
+     */
+    private static long versionOf(LocalDateTime updatedAt) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), updatedAt);
+    }
+
+    private static Date lastModified(Note note) {
+        return Date.from(note.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static JsonObject toJson(Note note) {
+        return Json.createObjectBuilder()
+                .add("id", note.getId())
+                .add("version", note.getVersion())
+                .add("title", note.getTitle())
+                .add("content", note.getContent())
+                .add("createdAt", note.getCreatedAt().toString())
+                .add("updatedAt", note.getUpdatedAt().toString())
+                .build();
+    }
+
+    private static JsonObjectBuilder toJson(NoteSummary note) {
+        return Json.createObjectBuilder()
+                .add("id", note.getId())
+                .add("title", note.getTitle())
+                .add("preview", note.getPreview())
+                .add("createdAt", note.getCreatedAt().toString())
+                .add("updatedAt", note.getUpdatedAt().toString());
+    }
+
+    private static String requiredText(JsonObject body, String name, int maxLength) {
+        if (body == null || !(body.get(name) instanceof JsonString value) || value.getString().isBlank()) {
+            throw new BadRequestException("Feld '" + name + "' darf nicht leer sein");
+        }
+        if (value.getString().length() > maxLength) {
+            throw new BadRequestException("Feld '" + name + "' darf höchstens " + maxLength + " Zeichen haben");
+        }
+        return value.getString();
+    }
+
+    private static NotFoundException notFound(Long id) {
+        return new NotFoundException("Notiz mit ID " + id + " wurde nicht gefunden");
+    }
+}
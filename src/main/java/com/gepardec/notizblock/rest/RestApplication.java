@@ -0,0 +1,11 @@
+package com.gepardec.notizblock.rest;
+
+import jakarta.ws.rs.ApplicationPath;
+import jakarta.ws.rs.core.Application;
+
+/**
+ * Aktiviert JAX-RS unter /api
+ */
+@ApplicationPath("/api")
+public class RestApplication extends Application {
+}
@@ -0,0 +1,116 @@
+package com.gepardec.notizblock.rest;
+
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.transfer.ImportResult;
+import com.gepardec.notizblock.transfer.NoteTransferService;
+import com.gepardec.notizblock.transfer.TransferException;
+import com.gepardec.notizblock.transfer.TransferFormat;
+import jakarta.inject.Inject;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+
+/**
+ * REST-Endpunkte für Export und Import von Notizen und Historie
+ * Export und Import streamen direkt vom bzw. in den HTTP-Body. Exporte laufen asynchron im BackgroundExecutor,
+ * der Request-Thread ist während des Exports wieder frei.
+ *
+ * GET  /api/transfer/notes?format=jsonl|csv    Export aller Notizen
+ * GET  /api/transfer/history?format=jsonl|csv  Export aller History-Einträge
+ * POST /api/transfer/notes?format=jsonl|csv    Import von Notizen
+ * POST /api/transfer/history?format=jsonl|csv  Import von History-Einträgen (nach den Notizen)
+ */
+@Path("transfer")
+public class TransferResource {
+
+    @Inject
+    private NoteTransferService transferService;
+
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    @GET
+    @Path("notes")
+    public void exportNotes(@QueryParam("format") String format, @Suspended AsyncResponse response) {
+        export(format, "notes", transferService::exportNotes, response);
+    }
+
+    @GET
+    @Path("history")
+    public void exportHistory(@QueryParam("format") String format, @Suspended AsyncResponse response) {
+        export(format, "history", transferService::exportHistory, response);
+    }
+
+    @POST
+    @Path("notes")
+    @Consumes(MediaType.WILDCARD)
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject importNotes(@QueryParam("format") String format, InputStream body) {
+        TransferFormat transferFormat = parseFormat(format);
+        try {
+            return toJson(transferService.importNotes(transferFormat, body));
+        } catch (TransferException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
+    @POST
+    @Path("history")
+    @Consumes(MediaType.WILDCARD)
+    @Produces(MediaType.APPLICATION_JSON)
+    public JsonObject importHistory(@QueryParam("format") String format, InputStream body) {
+        TransferFormat transferFormat = parseFormat(format);
+        try {
+            return toJson(transferService.importHistory(transferFormat, body));
+        } catch (TransferException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Startet einen Export im Hintergrund
+     * resume() schreibt die Antwort im aufrufenden Thread, der StreamingOutput läuft also im BackgroundExecutor
+     */
+    private void export(String format, String name, BiConsumer<TransferFormat, OutputStream> exporter,
+                        AsyncResponse response) {
+        TransferFormat transferFormat = parseFormat(format);
+        StreamingOutput body = output -> exporter.accept(transferFormat, output);
+        Response export = Response.ok(body, transferFormat.getMediaType() + "; charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + transferFormat.getFileExtension() + "\"")
+                .build();
+        backgroundExecutor.execute(() -> response.resume(export));
+    }
+
+    private static TransferFormat parseFormat(String format) {
+        try {
+            return TransferFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage(), e);
+        }
+    }
+
+    private static JsonObject toJson(ImportResult result) {
+        return Json.createObjectBuilder()
+                .add("imported", result.imported())
+                .add("chunks", result.chunks())
+                .add("durationMs", result.durationMs())
+                .build();
+    }
+}
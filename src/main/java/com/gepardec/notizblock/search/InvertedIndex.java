@@ -0,0 +1,140 @@
+package com.gepardec.notizblock.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Invertierter Index über Titel und Inhalt der Notizen mit BM25-Ranking
+ * Nicht thread-safe, die Synchronisation übernimmt der NoteSearchIndex
+ */
+class InvertedIndex {
+
+    // Treffer im Titel zählen mehrfach, damit sie höher gerankt werden
+    private static final int TITLE_WEIGHT = 3;
+
+    // Minimale Länge eines Suchbegriffs
+    private static final int MIN_TERM_LENGTH = 2;
+
+    // BM25-Parameter (Standardwerte)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Begriff -> (Notiz-ID -> gewichtete Häufigkeit)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    // Notiz-ID -> indizierte Begriffe und Dokumentlänge
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private long totalLength;
+
+    /**
+     * Fügt eine Notiz hinzu oder ersetzt einen vorhandenen Eintrag
+     */
+    void put(Long noteId, String title, String content) {
+        remove(noteId);
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : tokenize(content)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(noteId, frequency));
+        documents.put(noteId, new Document(title, frequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    /**
+     * Entfernt eine Notiz aus dem Index
+     */
+    void remove(Long noteId) {
+        Document document = documents.remove(noteId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Integer> notes = postings.get(term);
+            if (notes != null) {
+                notes.remove(noteId);
+                if (notes.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length();
+    }
+
+    /**
+     * Sucht nach allen Begriffen der Anfrage (ODER-Verknüpfung) und sortiert nach BM25-Score
+     */
+    List<SearchHit> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || documents.isEmpty()) {
+            return List.of();
+        }
+
+        int documentCount = documents.size();
+        double averageLength = (double) totalLength / documentCount;
+        Map<Long, Double> scores = new HashMap<>();
+
+        for (String term : terms) {
+            Map<Long, Integer> notes = postings.get(term);
+            if (notes == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documentCount - notes.size() + 0.5) / (notes.size() + 0.5));
+            notes.forEach((noteId, frequency) -> {
+                double normalizedLength = 1 - B + B * documents.get(noteId).length() / averageLength;
+                double score = idf * frequency * (K1 + 1) / (frequency + K1 * normalizedLength);
+                scores.merge(noteId, score, Double::sum);
+            });
+        }
+
+        List<SearchHit> hits = new ArrayList<>(scores.size());
+        scores.forEach((noteId, score) -> hits.add(new SearchHit(noteId, documents.get(noteId).title(), score)));
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                .thenComparing(SearchHit::getNoteId));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    /**
+     * @return Anzahl der indizierten Notizen
+     */
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Zerlegt einen Text in kleingeschriebene Begriffe
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TERM_LENGTH) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private record Document(String title, Set<String> terms, int length) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.gepardec.notizblock.search;
+
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.metrics.Monitored;
+import com.gepardec.notizblock.model.NoteRecord;
+import com.gepardec.notizblock.repository.NoteRepository;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Volltextsuche über Titel und Inhalt aller Notizen
+ * Der Index liegt im Speicher, wird beim Start aufgebaut und danach
+ * inkrementell über NoteChangedEvents nach erfolgreichem Commit aktualisiert
+ */
+@ApplicationScoped
+public class NoteSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(NoteSearchIndex.class.getName());
+
+    // Anzahl der Notizen, die beim Neuaufbau pro Abfrage gelesen werden
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    @Inject
+    private NoteRepository noteRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private InvertedIndex index = new InvertedIndex();
+
+    // Änderungen, die während eines Neuaufbaus eintreffen und danach nachgezogen werden
+    private List<NoteChangedEvent> pendingChanges;
+
+    /**
+     * Baut den Index beim Start der Anwendung auf
+     */
+    void onStartup(@Observes @Initialized(ApplicationScoped.class) Object event) {
+        rebuild();
+    }
+
+    /**
+     * Übernimmt eine Änderung in den Index, sobald die Transaktion erfolgreich abgeschlossen ist
+     */
+    void onNoteChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) NoteChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(index, event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Baut den Index komplett neu aus der Datenbank auf
+     * Suchanfragen werden währenddessen weiter aus dem bisherigen Index beantwortet
+     */
+    @Monitored
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        InvertedIndex rebuilt = new InvertedIndex();
+        try {
+            Long lastId = null;
+            List<NoteRecord> batch;
+            do {
+                batch = noteRepository.findBatch(lastId, REBUILD_BATCH_SIZE);
+                for (NoteRecord note : batch) {
+                    rebuilt.put(note.id(), note.title(), note.content());
+                    lastId = note.id();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // Bisherigen Index behalten
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Änderungen seit Beginn des Neuaufbaus nachziehen, dann umschalten
+            pendingChanges.forEach(change -> apply(rebuilt, change));
+            pendingChanges = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info(() -> "Suchindex aufgebaut: " + rebuilt.size() + " Notizen");
+    }
+
+    /**
+     * Sucht Notizen, die einen oder mehrere Begriffe der Anfrage enthalten
+     *
+     * @param query Suchanfrage (mehrere Begriffe durch Leerzeichen getrennt)
+     * @param limit Maximale Anzahl der Treffer
+     * @return Treffer sortiert nach Relevanz (beste zuerst)
+     */
+    @Monitored
+    public List<SearchHit> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void apply(InvertedIndex target, NoteChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            target.remove(event.noteId());
+        } else {
+            target.put(event.noteId(), event.title(), event.content());
+        }
+    }
+}
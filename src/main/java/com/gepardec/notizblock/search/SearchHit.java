@@ -0,0 +1,45 @@
+package com.gepardec.notizblock.search;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Ein Treffer der Volltextsuche
+ */
+public class SearchHit implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Long noteId;
+    private final String title;
+    private final double score;
+
+    public SearchHit(Long noteId, String title, double score) {
+        this.noteId = noteId;
+        this.title = title;
+        this.score = score;
+    }
+
+    // Getter
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+                "noteId=" + noteId +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.gepardec.notizblock.statistics;
+
+import com.gepardec.notizblock.concurrent.BackgroundExecutor;
+import com.gepardec.notizblock.repository.StatisticsRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Priority;
+import jakarta.annotation.Resource;
+import jakarta.enterprise.concurrent.ManagedScheduledExecutorService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Initialized;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legt die Zeilen der Tagesstatistik beim Start und danach stündlich für die kommenden Tage an
+ * Läuft nach der Schema-Migration und vor den ersten zählenden Transaktionen,
+ * die stündlichen Läufe im BackgroundExecutor.
+ */
+@ApplicationScoped
+public class DailyStatisticsJob {
+
+    @Inject
+    private StatisticsRepository statisticsRepository;
+
+    @Inject
+    private BackgroundExecutor backgroundExecutor;
+
+    @Resource
+    private ManagedScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> task;
+
+    void onStartup(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+                   @Initialized(ApplicationScoped.class) Object event) {
+        statisticsRepository.prepareDays();
+        task = scheduler.scheduleAtFixedRate(() -> backgroundExecutor.execute(statisticsRepository::prepareDays),
+                1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.gepardec.notizblock.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimaler CSV-Codec nach RFC 4180 (Komma als Trenner, Felder mit Sonderzeichen in Anführungszeichen)
+ * Zeilenumbrüche innerhalb von Feldern werden unterstützt
+ */
+final class Csv {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private Csv() {
+    }
+
+    /**
+     * Schreibt einen Datensatz als Zeile (null wird als leeres Feld geschrieben)
+     */
+    static void writeRecord(Writer writer, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARATOR);
+            }
+            writeField(writer, fields[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Liest den nächsten Datensatz
+     *
+     * Leere Felder ohne Anführungszeichen werden als null geliefert, "" als leerer String
+     *
+     * @return Die Felder oder null am Ende der Eingabe
+     */
+    static List<String> readRecord(Reader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldQuoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new TransferException("CSV: Anführungszeichen nicht geschlossen");
+                }
+                if (c == QUOTE) {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+                fieldQuoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(toValue(field, fieldQuoted));
+                field.setLength(0);
+                fieldQuoted = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                fields.add(toValue(field, fieldQuoted));
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    private static String toValue(StringBuilder field, boolean quoted) {
+        return field.isEmpty() && !quoted ? null : field.toString();
+    }
+
+    private static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.isEmpty() || value.indexOf(SEPARATOR) >= 0 || value.indexOf(QUOTE) >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write(QUOTE);
+        writer.write(value.replace("\"", "\"\""));
+        writer.write(QUOTE);
+    }
+}
@@ -0,0 +1,11 @@
+package com.gepardec.notizblock.transfer;
+
+/**
+ * Ergebnis eines Imports
+ *
+ * @param imported   Anzahl der geschriebenen Datensätze
+ * @param chunks     Anzahl der Transaktionen
+ * @param durationMs Dauer in Millisekunden
+ */
+public record ImportResult(long imported, int chunks, long durationMs) {
+}
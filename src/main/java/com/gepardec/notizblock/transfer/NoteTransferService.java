@@ -0,0 +1,140 @@
+package com.gepardec.notizblock.transfer;
+
+import com.gepardec.notizblock.config.ConfigProperties;
+import com.gepardec.notizblock.readmodel.NoteReadModel;
+import com.gepardec.notizblock.repository.NoteTransferRepository;
+import com.gepardec.notizblock.repository.SequenceRepository;
+import com.gepardec.notizblock.repository.StatisticsRepository;
+import com.gepardec.notizblock.search.NoteSearchIndex;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Streamt Notizen und History-Einträge zwischen Datenbank und JSON Lines / CSV
+ * Export: ein Datenbank-Cursor, jede Zeile wird sofort auf den Ausgabestream geschrieben.
+ * Import: die Eingabe wird in Chunks gelesen, jeder Chunk in einer eigenen Transaktion per JDBC-Batch
+ * geschrieben. Bereits importierte Chunks bleiben bei einem Fehler erhalten; da per MERGE über die ID
+ * geschrieben wird, kann ein abgebrochener Import einfach wiederholt werden.
+ * Notizen müssen vor ihrer Historie importiert werden.
+ *
+ * Konfiguration: notizblock.transfer.chunkSize (Standard 1000)
+ */
+@ApplicationScoped
+public class NoteTransferService {
+
+    private static final Logger LOGGER = Logger.getLogger(NoteTransferService.class.getName());
+
+    private final int chunkSize = Math.max(1, ConfigProperties.getInt("transfer.chunkSize", 1000));
+
+    @Inject
+    private NoteTransferRepository transferRepository;
+
+    @Inject
+    private SequenceRepository sequenceRepository;
+
+    @Inject
+    private StatisticsRepository statisticsRepository;
+
+    @Inject
+    private NoteSearchIndex searchIndex;
+
+    @Inject
+    private NoteReadModel noteReadModel;
+
+    /**
+     * Exportiert alle Notizen
+     * @return Anzahl der exportierten Notizen
+     */
+    public long exportNotes(TransferFormat format, OutputStream output) {
+        try (TransferWriter writer = new TransferWriter(format, output)) {
+            return transferRepository.exportNotes(writer::writeNote);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Exportiert alle History-Einträge
+     * @return Anzahl der exportierten Einträge
+     */
+    public long exportHistory(TransferFormat format, OutputStream output) {
+        try (TransferWriter writer = new TransferWriter(format, output)) {
+            return transferRepository.exportHistory(writer::writeHistory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Importiert Notizen, vorhandene Notizen mit gleicher ID werden überschrieben
+     * Danach werden Sequenzen, Caches, Suchindex und Lesemodell an den neuen Datenbestand angepasst
+     */
+    public ImportResult importNotes(TransferFormat format, InputStream input) {
+        try (TransferReader reader = new TransferReader(format, input)) {
+            return importChunks("Notizen", reader::readNote, transferRepository::importNotes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            afterImport();
+            searchIndex.rebuild();
+            noteReadModel.rebuild();
+        }
+    }
+
+    /**
+     * Importiert History-Einträge, die zugehörigen Notizen müssen bereits existieren
+     */
+    public ImportResult importHistory(TransferFormat format, InputStream input) {
+        try (TransferReader reader = new TransferReader(format, input)) {
+            return importChunks("History-Einträge", reader::readHistory, transferRepository::importHistory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            afterImport();
+        }
+    }
+
+    private <T> ImportResult importChunks(String label, Supplier<T> source, Function<List<T>, Integer> sink) {
+        long start = System.currentTimeMillis();
+        long imported = 0;
+        int chunks = 0;
+        List<T> chunk = new ArrayList<>(chunkSize);
+        T record;
+        while ((record = source.get()) != null) {
+            chunk.add(record);
+            if (chunk.size() == chunkSize) {
+                imported += sink.apply(chunk);
+                chunks++;
+                chunk.clear();
+                long progress = imported;
+                LOGGER.info(() -> "Import " + label + ": " + progress + " Datensätze geschrieben");
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += sink.apply(chunk);
+            chunks++;
+        }
+        ImportResult result = new ImportResult(imported, chunks, System.currentTimeMillis() - start);
+        LOGGER.info(() -> "Import " + label + " abgeschlossen: " + result.imported() + " Datensätze in "
+                + result.chunks() + " Chunks, " + result.durationMs() + " ms");
+        return result;
+    }
+
+    private void afterImport() {
+        // Importierte IDs dürfen nicht erneut vergeben werden
+        sequenceRepository.alignSequences();
+        transferRepository.evictCaches();
+        // Der Import schreibt per JDBC an den Zählern vorbei
+        statisticsRepository.recalculate();
+    }
+}
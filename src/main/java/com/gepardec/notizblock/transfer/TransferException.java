@@ -0,0 +1,16 @@
+package com.gepardec.notizblock.transfer;
+
+import java.io.Serial;
+
+/**
+ * Ungültige Eingabe beim Import (Format, fehlende Felder, nicht lesbare Werte)
+ */
+public class TransferException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public TransferException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.gepardec.notizblock.transfer;
+
+import java.util.Locale;
+
+/**
+ * Unterstützte Formate für Import und Export
+ */
+public enum TransferFormat {
+    JSONL("application/x-ndjson", "jsonl"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    TransferFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Ermittelt das Format anhand seines Namens (z.B. aus einem Query-Parameter)
+     *
+     * @param name "jsonl" oder "csv" (Groß-/Kleinschreibung egal), null = JSONL
+     * @return Das Format
+     * @throws IllegalArgumentException bei unbekanntem Format
+     */
+    public static TransferFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return JSONL;
+        }
+        for (TransferFormat format : values()) {
+            if (format.fileExtension.equals(name.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unbekanntes Format: " + name + " (erlaubt: jsonl, csv)");
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
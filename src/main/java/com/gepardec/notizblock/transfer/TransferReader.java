@@ -0,0 +1,171 @@
+package com.gepardec.notizblock.transfer;
+
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.model.NoteHistoryRecord;
+import com.gepardec.notizblock.model.NoteRecord;
+import jakarta.json.Json;
+import jakarta.json.JsonException;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liest Datensätze zeilenweise aus JSON Lines oder CSV (Gegenstück zum TransferWriter)
+ * CSV-Dateien brauchen eine Kopfzeile, die Reihenfolge der Spalten ist beliebig
+ */
+class TransferReader implements AutoCloseable {
+
+    private final TransferFormat format;
+    private final BufferedReader reader;
+
+    // Spaltenname -> Index (nur CSV)
+    private Map<String, Integer> columns;
+
+    // Nummer des zuletzt gelesenen Datensatzes (für Fehlermeldungen)
+    private long recordNumber;
+
+    TransferReader(TransferFormat format, InputStream input) {
+        this.format = format;
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return Die nächste Notiz oder null am Ende der Eingabe
+     */
+    NoteRecord readNote() {
+        Map<String, String> fields = next();
+        if (fields == null) {
+            return null;
+        }
+        try {
+            return new NoteRecord(
+                    Long.valueOf(required(fields, "id")),
+                    // Ältere Exporte enthalten noch keine Version
+                    fields.get("version") != null ? Long.parseLong(fields.get("version")) : 0L,
+                    required(fields, "title"),
+                    required(fields, "content"),
+                    parse(required(fields, "createdAt")),
+                    parse(required(fields, "updatedAt")));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw invalid(e.getMessage());
+        }
+    }
+
+    /**
+     * @return Der nächste History-Eintrag oder null am Ende der Eingabe
+     */
+    NoteHistoryRecord readHistory() {
+        Map<String, String> fields = next();
+        if (fields == null) {
+            return null;
+        }
+        try {
+            String payload = fields.get("payload");
+            return new NoteHistoryRecord(
+                    Long.valueOf(required(fields, "id")),
+                    Long.valueOf(required(fields, "noteId")),
+                    ChangeType.valueOf(required(fields, "changeType")),
+                    parse(required(fields, "changedAt")),
+                    Integer.parseInt(required(fields, "revision")),
+                    Boolean.parseBoolean(required(fields, "snapshot")),
+                    payload != null ? Base64.getDecoder().decode(payload) : null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // IllegalArgumentException deckt auch NumberFormatException, Enum- und Base64-Fehler ab
+            throw invalid(e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, String> next() {
+        try {
+            return format == TransferFormat.CSV ? nextCsv() : nextJson();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<String, String> nextJson() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        recordNumber++;
+
+        JsonObject json;
+        try (JsonReader jsonReader = Json.createReader(new StringReader(line))) {
+            json = jsonReader.readObject();
+        } catch (JsonException e) {
+            throw invalid("kein gültiges JSON-Objekt");
+        }
+        Map<String, String> fields = new HashMap<>();
+        json.forEach((name, value) -> fields.put(name, switch (value.getValueType()) {
+            case NULL -> null;
+            case STRING -> json.getString(name);
+            default -> value.toString();
+        }));
+        return fields;
+    }
+
+    private Map<String, String> nextCsv() throws IOException {
+        if (columns == null) {
+            List<String> header = Csv.readRecord(reader);
+            if (header == null) {
+                return null;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i), i);
+            }
+        }
+        List<String> values;
+        do {
+            values = Csv.readRecord(reader);
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0) == null);
+        recordNumber++;
+
+        Map<String, String> fields = new HashMap<>();
+        for (Map.Entry<String, Integer> column : columns.entrySet()) {
+            fields.put(column.getKey(), column.getValue() < values.size() ? values.get(column.getValue()) : null);
+        }
+        return fields;
+    }
+
+    private String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null) {
+            throw invalid("Feld '" + name + "' fehlt");
+        }
+        return value;
+    }
+
+    private TransferException invalid(String reason) {
+        return new TransferException("Ungültiger Datensatz " + recordNumber + ": " + reason);
+    }
+
+    private static LocalDateTime parse(String value) {
+        return LocalDateTime.parse(value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.gepardec.notizblock.transfer;
+
+import com.gepardec.notizblock.model.NoteHistoryRecord;
+import com.gepardec.notizblock.model.NoteRecord;
+import jakarta.json.Json;
+import jakarta.json.JsonBuilderFactory;
+import jakarta.json.JsonObjectBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Schreibt Datensätze zeilenweise als JSON Lines oder CSV auf einen Stream
+ * Es wird nichts zwischengespeichert außer dem Schreibpuffer
+ */
+class TransferWriter implements AutoCloseable {
+
+    static final String[] NOTE_COLUMNS = {"id", "version", "title", "content", "createdAt", "updatedAt"};
+    static final String[] HISTORY_COLUMNS = {"id", "noteId", "changeType", "changedAt", "revision", "snapshot", "payload"};
+
+    private static final JsonBuilderFactory JSON = Json.createBuilderFactory(Map.of());
+
+    private final TransferFormat format;
+    private final Writer writer;
+
+    private boolean headerWritten;
+
+    TransferWriter(TransferFormat format, OutputStream output) {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    void writeNote(NoteRecord note) {
+        if (format == TransferFormat.CSV) {
+            writeCsv(NOTE_COLUMNS, String.valueOf(note.id()), String.valueOf(note.version()), note.title(), note.content(),
+                    format(note.createdAt()), format(note.updatedAt()));
+            return;
+        }
+        JsonObjectBuilder json = JSON.createObjectBuilder()
+                .add("id", note.id())
+                .add("version", note.version())
+                .add("title", note.title())
+                .add("content", note.content());
+        addNullable(json, "createdAt", format(note.createdAt()));
+        addNullable(json, "updatedAt", format(note.updatedAt()));
+        writeLine(json.build().toString());
+    }
+
+    void writeHistory(NoteHistoryRecord entry) {
+        String payload = entry.payload() != null ? Base64.getEncoder().encodeToString(entry.payload()) : null;
+        if (format == TransferFormat.CSV) {
+            writeCsv(HISTORY_COLUMNS, String.valueOf(entry.id()), String.valueOf(entry.noteId()),
+                    entry.changeType().name(), format(entry.changedAt()), String.valueOf(entry.revision()),
+                    String.valueOf(entry.snapshot()), payload);
+            return;
+        }
+        JsonObjectBuilder json = JSON.createObjectBuilder()
+                .add("id", entry.id())
+                .add("noteId", entry.noteId())
+                .add("changeType", entry.changeType().name())
+                .add("changedAt", format(entry.changedAt()))
+                .add("revision", entry.revision())
+                .add("snapshot", entry.snapshot());
+        addNullable(json, "payload", payload);
+        writeLine(json.build().toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeCsv(String[] columns, String... values) {
+        try {
+            if (!headerWritten) {
+                Csv.writeRecord(writer, columns);
+                headerWritten = true;
+            }
+            Csv.writeRecord(writer, values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void addNullable(JsonObjectBuilder json, String name, String value) {
+        if (value != null) {
+            json.add(name, value);
+        } else {
+            json.addNull(name);
+        }
+    }
+
+    private static String format(LocalDateTime value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,48 @@
+-- Ausgangsschema, entspricht dem bisher von Hibernate (hbm2ddl) erzeugten Stand
+
+CREATE SEQUENCE notes_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE note_history_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE history_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE notes (
+    id        BIGINT        NOT NULL,
+    title     VARCHAR(255)  NOT NULL,
+    content   VARCHAR(5000) NOT NULL,
+    createdAt TIMESTAMP(6)  NOT NULL,
+    updatedAt TIMESTAMP(6)  NOT NULL,
+    version   BIGINT        NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Keyset-Pagination (ORDER BY createdAt DESC, id DESC), deckt auch Abfragen nur auf createdAt ab
+CREATE INDEX idx_notes_created_at_id ON notes (createdAt, id);
+
+-- changeType ohne CHECK-Constraint, damit neue Enum-Werte keine Migration brauchen
+CREATE TABLE note_history (
+    id         BIGINT       NOT NULL,
+    note_id    BIGINT       NOT NULL,
+    changeType VARCHAR(20)  NOT NULL,
+    changedAt  TIMESTAMP(6) NOT NULL,
+    revision   INTEGER      NOT NULL,
+    snapshot   BOOLEAN      NOT NULL,
+    payload    BLOB,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_note_history_note FOREIGN KEY (note_id) REFERENCES notes (id)
+);
+
+-- Jede Revision einer Notiz höchstens einmal (@UniqueConstraint an NoteHistory)
+CREATE UNIQUE INDEX uq_note_history_note_revision ON note_history (note_id, revision);
+
+-- Outbox für die Historie, ohne Fremdschlüssel auf notes (die Notiz kann vor dem Schreiben gelöscht werden)
+CREATE TABLE history_outbox (
+    id         BIGINT        NOT NULL,
+    note_id    BIGINT        NOT NULL,
+    changeType VARCHAR(20)   NOT NULL,
+    title      VARCHAR(255)  NOT NULL,
+    content    VARCHAR(5000) NOT NULL,
+    changedAt  TIMESTAMP(6)  NOT NULL,
+    attempts   INTEGER       NOT NULL,
+    lastError  VARCHAR(1000),
+    failedAt   TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
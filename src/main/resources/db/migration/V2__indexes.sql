@@ -0,0 +1,8 @@
+-- Explizite Indizes für die häufigsten Abfragen
+-- notes(createdAt) ist bereits über idx_notes_created_at_id (führende Spalte createdAt) abgedeckt
+
+-- Sortierung nach Titel in der Tabelle
+CREATE INDEX idx_notes_title ON notes (title);
+
+-- Historie einer Notiz in zeitlicher Reihenfolge (findByNoteId)
+CREATE INDEX idx_note_history_note_changed_at ON note_history (note_id, changedAt);
@@ -0,0 +1,17 @@
+-- Archiv für ältere History-Einträge (HistoryRetentionJob)
+-- Gleiche Spalten wie note_history, die Payloads bleiben unverändert und bilden pro Notiz eine lückenlose Kette
+-- ab der ersten Revision. Kein Fremdschlüssel, das Archiv wird beim Löschen einer Notiz explizit mitgelöscht.
+
+CREATE TABLE note_history_archive (
+    id         BIGINT       NOT NULL,
+    note_id    BIGINT       NOT NULL,
+    changeType VARCHAR(20)  NOT NULL,
+    changedAt  TIMESTAMP(6) NOT NULL,
+    revision   INTEGER      NOT NULL,
+    snapshot   BOOLEAN      NOT NULL,
+    payload    BLOB,
+    archivedAt TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_note_history_archive_note_revision ON note_history_archive (note_id, revision);
@@ -0,0 +1,48 @@
+-- Fortlaufend gepflegte Zähler (StatisticsRepository), damit Anzeigen keine COUNT-Abfragen brauchen
+-- Die Zähler werden in denselben Transaktionen geändert wie die gezählten Zeilen.
+-- Globale Zähler und Tagesstatistik sind auf 16 Zeilen (slot) verteilt, damit parallele Transaktionen
+-- nicht alle auf dieselbe Zeile warten; gelesen wird die Summe der Slots. Die Anzahl ist in
+-- StatisticsRepository.COUNTER_SLOTS festgelegt.
+
+-- Globale Zähler: 'notes' (Anzahl Notizen) und 'history' (Anzahl History-Einträge)
+CREATE TABLE note_counter (
+    name          VARCHAR(50) NOT NULL,
+    slot          INTEGER     NOT NULL,
+    counter_value BIGINT      NOT NULL,
+    PRIMARY KEY (name, slot)
+);
+
+-- Der aktuelle Stand in Slot 0, die übrigen Slots starten bei 0
+INSERT INTO note_counter (name, slot, counter_value) SELECT 'notes', 0, COUNT(*) FROM notes;
+INSERT INTO note_counter (name, slot, counter_value) SELECT 'history', 0, COUNT(*) FROM note_history;
+INSERT INTO note_counter (name, slot, counter_value)
+SELECT c.name, CAST(r.X AS INTEGER), 0 FROM note_counter c CROSS JOIN SYSTEM_RANGE(1, 15) r;
+
+-- History-Einträge pro Notiz, wird mit der Notiz gelöscht
+CREATE TABLE note_history_counter (
+    note_id BIGINT NOT NULL,
+    entries BIGINT NOT NULL,
+    PRIMARY KEY (note_id),
+    CONSTRAINT fk_note_history_counter_note FOREIGN KEY (note_id) REFERENCES notes (id) ON DELETE CASCADE
+);
+
+INSERT INTO note_history_counter (note_id, entries)
+SELECT note_id, COUNT(*) FROM note_history GROUP BY note_id;
+
+-- Änderungen pro Tag; Löschungen wurden bisher nicht protokolliert und starten bei 0
+CREATE TABLE note_daily_statistics (
+    stat_date DATE    NOT NULL,
+    slot      INTEGER NOT NULL,
+    created   BIGINT  NOT NULL,
+    updated   BIGINT  NOT NULL,
+    deleted   BIGINT  NOT NULL,
+    PRIMARY KEY (stat_date, slot)
+);
+
+INSERT INTO note_daily_statistics (stat_date, slot, created, updated, deleted)
+SELECT CAST(changedAt AS DATE), 0,
+       SUM(CASE WHEN changeType = 'CREATED' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN changeType <> 'CREATED' THEN 1 ELSE 0 END),
+       0
+FROM note_history
+GROUP BY CAST(changedAt AS DATE);
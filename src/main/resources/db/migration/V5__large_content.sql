@@ -0,0 +1,22 @@
+-- Lange Notizen: Inhalt als BLOB statt VARCHAR(5000), dazu eine Vorschau-Spalte für die Listen
+-- Der Inhalt steht als UTF-8 im BLOB, ab einer Größenschwelle GZIP-komprimiert (CompressedTextConverter).
+-- Bestehende Inhalte werden unkomprimiert übernommen und beim nächsten Speichern komprimiert.
+
+-- Vorschau: die ersten 101 Zeichen (NoteSummary.PREVIEW_LENGTH + 1, damit das Kürzen erkennbar bleibt)
+ALTER TABLE notes ADD COLUMN preview VARCHAR(101);
+UPDATE notes SET preview = LEFT(content, 101);
+ALTER TABLE notes ALTER COLUMN preview SET NOT NULL;
+
+-- CAST nach BINARY VARYING liefert die UTF-8-Bytes des Textes
+ALTER TABLE notes ADD COLUMN body BLOB;
+UPDATE notes SET body = CAST(content AS BINARY VARYING);
+ALTER TABLE notes DROP COLUMN content;
+ALTER TABLE notes ALTER COLUMN body RENAME TO content;
+ALTER TABLE notes ALTER COLUMN content SET NOT NULL;
+
+-- Der Outbox hält den Inhalt zum Zeitpunkt der Änderung und braucht daher dieselbe Spalte
+ALTER TABLE history_outbox ADD COLUMN body BLOB;
+UPDATE history_outbox SET body = CAST(content AS BINARY VARYING);
+ALTER TABLE history_outbox DROP COLUMN content;
+ALTER TABLE history_outbox ALTER COLUMN body RENAME TO content;
+ALTER TABLE history_outbox ALTER COLUMN content SET NOT NULL;
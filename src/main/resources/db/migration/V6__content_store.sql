@@ -0,0 +1,50 @@
+-- Inhaltsadressierter Speicher für Notizinhalte und Snapshot-Inhalte der Historie (ContentStoreRepository)
+-- Schlüssel ist der SHA-256 der UTF-8-Bytes des Textes, gleiche Inhalte liegen nur einmal vor.
+-- ref_count zählt die Zeilen in notes, note_history und history_outbox, die auf den Eintrag verweisen; bei 0 wird
+-- er gelöscht.
+
+CREATE TABLE content_store (
+    hash      VARCHAR(64) NOT NULL,
+    data      BLOB        NOT NULL,
+    ref_count BIGINT      NOT NULL,
+    PRIMARY KEY (hash)
+);
+
+-- Bestehende Inhalte übernehmen. Der Hash wird über die gespeicherten Bytes gebildet: bei unkomprimierten
+-- Inhalten sind das die UTF-8-Bytes, der Hash stimmt also mit dem der Anwendung überein. Bereits
+-- komprimierte Inhalte (GZIP-Header, kein gültiges UTF-8) bekommen einen Hash, den kein Text ergibt;
+-- sie bleiben korrekt lesbar und werden nur nicht mit neu gespeicherten Inhalten zusammengelegt.
+ALTER TABLE notes ADD COLUMN content_hash VARCHAR(64);
+UPDATE notes SET content_hash = LOWER(RAWTOHEX(HASH('SHA-256', content)));
+
+ALTER TABLE history_outbox ADD COLUMN content_hash VARCHAR(64);
+UPDATE history_outbox SET content_hash = LOWER(RAWTOHEX(HASH('SHA-256', content)));
+
+INSERT INTO content_store (hash, data, ref_count)
+SELECT n.content_hash, n.content, g.refs
+FROM notes n
+JOIN (SELECT content_hash, MIN(id) AS id, COUNT(*) AS refs FROM notes GROUP BY content_hash) g ON n.id = g.id;
+
+-- Offene Outbox-Einträge verweisen auf den Inhalt zum Zeitpunkt der Änderung, der von der Notiz abweichen kann
+INSERT INTO content_store (hash, data, ref_count)
+SELECT o.content_hash, o.content, 0
+FROM history_outbox o
+JOIN (SELECT content_hash, MIN(id) AS id FROM history_outbox GROUP BY content_hash) g ON o.id = g.id
+WHERE NOT EXISTS (SELECT 1 FROM content_store c WHERE c.hash = o.content_hash);
+
+UPDATE content_store c
+SET ref_count = ref_count + (SELECT COUNT(*) FROM history_outbox o WHERE o.content_hash = c.hash);
+
+ALTER TABLE notes DROP COLUMN content;
+ALTER TABLE notes ALTER COLUMN content_hash SET NOT NULL;
+ALTER TABLE notes ADD CONSTRAINT fk_notes_content FOREIGN KEY (content_hash) REFERENCES content_store (hash);
+
+ALTER TABLE history_outbox DROP COLUMN content;
+ALTER TABLE history_outbox ALTER COLUMN content_hash SET NOT NULL;
+ALTER TABLE history_outbox ADD CONSTRAINT fk_history_outbox_content
+    FOREIGN KEY (content_hash) REFERENCES content_store (hash);
+
+-- Snapshots der Historie verweisen künftig ebenfalls auf den Inhalt, bestehende Snapshots behalten
+-- ihren eingebetteten Inhalt (content_hash NULL)
+ALTER TABLE note_history ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE note_history ADD CONSTRAINT fk_note_history_content FOREIGN KEY (content_hash) REFERENCES content_store (hash);
@@ -0,0 +1,77 @@
+/*
+ * Übernimmt per WebSocket (Kanal "notes") gemeldete Änderungen in die Übersicht
+ * Geänderte Notizen werden in Tabelle bzw. Liste direkt angepasst, gelöschte entfernt.
+ * Neue Notizen werden nur angekündigt, weil ihre Position von Sortierung, Filter und Seite abhängt;
+ * erst ein Klick auf den Hinweis lädt die Ansicht neu.
+ */
+var notizblockPush = (function () {
+
+    var newNotes = 0;
+
+    function elementsFor(id) {
+        return document.querySelectorAll(
+            '#mainForm\\:notesTable tr[data-rk="' + id + '"], #mainForm\\:notesScroller .note-card[data-note-id="' + id + '"]');
+    }
+
+    function setText(element, selector, text) {
+        var target = element.querySelector(selector);
+        if (target && text !== undefined) {
+            target.textContent = text;
+        }
+    }
+
+    function highlight(element) {
+        element.classList.remove('note-changed');
+        // Reflow erzwingen, damit die Animation erneut startet
+        void element.offsetWidth;
+        element.classList.add('note-changed');
+    }
+
+    function apply(change) {
+        var elements = elementsFor(change.id);
+        if (change.type === 'deleted') {
+            elements.forEach(function (element) {
+                element.remove();
+            });
+            return;
+        }
+        if (elements.length === 0) {
+            if (change.type === 'created') {
+                newNotes++;
+            }
+            return;
+        }
+        elements.forEach(function (element) {
+            setText(element, '.note-title', change.title);
+            setText(element, '.note-preview', change.preview);
+            highlight(element);
+        });
+    }
+
+    function updateHint() {
+        var hint = document.getElementById('newNotesHint');
+        if (!hint) {
+            return;
+        }
+        hint.style.display = newNotes > 0 ? 'block' : 'none';
+        setText(hint, '.new-notes-count',
+            newNotes === 1 ? '1 neue Notiz' : newNotes + ' neue Notizen');
+    }
+
+    return {
+        onMessage: function (message) {
+            (message.changes || []).forEach(apply);
+            var count = document.querySelector('.notes-count');
+            if (count && message.count !== undefined) {
+                count.textContent = message.count;
+            }
+            updateHint();
+        },
+
+        // Nach dem Neuladen der Ansicht sind alle neuen Notizen enthalten
+        reset: function () {
+            newNotes = 0;
+            updateHint();
+        }
+    };
+})();
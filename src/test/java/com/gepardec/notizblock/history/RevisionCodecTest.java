@@ -0,0 +1,140 @@
+package com.gepardec.notizblock.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevisionCodecTest {
+
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2026, 10, 1, 9, 15);
+
+    @Test
+    void snapshotRoundTrip() {
+        byte[] payload = RevisionCodec.encodeSnapshot("Titel", "Inhalt mit Umlauten: äöü ß");
+
+        Revision revision = RevisionCodec.decode(payload, null, 1, CHANGED_AT);
+
+        assertTrue(RevisionCodec.isSnapshot(payload));
+        assertEquals(1, revision.getNumber());
+        assertEquals("Titel", revision.getTitle());
+        assertEquals("Inhalt mit Umlauten: äöü ß", revision.getContent());
+        assertEquals(CHANGED_AT, revision.getChangedAt());
+    }
+
+    @Test
+    void snapshotKeepsNullValues() {
+        Revision revision = RevisionCodec.decode(RevisionCodec.encodeSnapshot(null, null), null, 1, CHANGED_AT);
+
+        assertNull(revision.getTitle());
+        assertNull(revision.getContent());
+    }
+
+    @Test
+    void snapshotReferenceTakesContentFromStore() {
+        byte[] payload = RevisionCodec.encodeSnapshotReference("Titel");
+
+        Revision revision = RevisionCodec.decode(payload, "Inhalt aus dem Store", null, 3, CHANGED_AT);
+
+        assertTrue(RevisionCodec.isSnapshot(payload));
+        assertTrue(RevisionCodec.isSnapshotReference(payload));
+        assertEquals(3, revision.getNumber());
+        assertEquals("Titel", revision.getTitle());
+        assertEquals("Inhalt aus dem Store", revision.getContent());
+    }
+
+    @Test
+    void onlyReferencePayloadsAreSnapshotReferences() {
+        assertFalse(RevisionCodec.isSnapshotReference(RevisionCodec.encodeSnapshot("Titel", "Inhalt")));
+        assertFalse(RevisionCodec.isSnapshotReference(RevisionCodec.encodeDelta("alt", "Titel", "neu")));
+    }
+
+    @Test
+    void snapshotReferenceWithoutStoredContentIsRejected() {
+        byte[] payload = RevisionCodec.encodeSnapshotReference("Titel");
+
+        assertThrows(IllegalStateException.class, () -> RevisionCodec.decode(payload, null, 1, CHANGED_AT));
+    }
+
+    @Test
+    void deltaRoundTrip() {
+        Revision previous = new Revision(1, "Alt", "Der schnelle braune Fuchs springt", CHANGED_AT);
+
+        byte[] payload = RevisionCodec.encodeDelta(previous.getContent(), "Neu", "Der langsame braune Fuchs springt");
+        Revision revision = RevisionCodec.decode(payload, previous, 2, CHANGED_AT);
+
+        assertFalse(RevisionCodec.isSnapshot(payload));
+        assertEquals(2, revision.getNumber());
+        assertEquals("Neu", revision.getTitle());
+        assertEquals("Der langsame braune Fuchs springt", revision.getContent());
+    }
+
+    @Test
+    void deltaHandlesAppendPrependAndRemoval() {
+        assertDeltaRoundTrip("abc", "abcdef");
+        assertDeltaRoundTrip("abc", "xyzabc");
+        assertDeltaRoundTrip("abcdef", "af");
+        assertDeltaRoundTrip("abc", "");
+        assertDeltaRoundTrip("", "abc");
+        assertDeltaRoundTrip("aaaa", "aaaaaa");
+        assertDeltaRoundTrip("gleich", "gleich");
+    }
+
+    @Test
+    void deltaTreatsNullContentAsEmpty() {
+        assertDeltaRoundTrip(null, "neu");
+        assertEquals("", RevisionCodec.decode(RevisionCodec.encodeDelta("alt", "T", null),
+                new Revision(1, "T", "alt", CHANGED_AT), 2, CHANGED_AT).getContent());
+    }
+
+    @Test
+    void smallChangeToLongContentYieldsSmallDelta() {
+        String content = "Lorem ipsum dolor sit amet. ".repeat(150);
+        String changed = content.substring(0, 2000) + "X" + content.substring(2001);
+
+        byte[] delta = RevisionCodec.encodeDelta(content, "Titel", changed);
+
+        assertTrue(delta.length < 64, "Delta hat " + delta.length + " Bytes");
+        assertDeltaRoundTrip(content, changed);
+    }
+
+    @Test
+    void deltaDoesNotSplitSurrogatePairAtPrefix() {
+        // Gleiches High-Surrogate, unterschiedliches Low-Surrogate
+        assertDeltaRoundTrip("a😀b", "a😁b");
+    }
+
+    @Test
+    void deltaDoesNotSplitSurrogatePairAtSuffix() {
+        // Unterschiedliches High-Surrogate, gleiches Low-Surrogate
+        assertDeltaRoundTrip("a😀", "a🈀");
+        assertDeltaRoundTrip("😀😀", "😀x😀");
+    }
+
+    @Test
+    void deltaWithoutPreviousRevisionIsRejected() {
+        byte[] payload = RevisionCodec.encodeDelta("alt", "Titel", "neu");
+
+        assertThrows(IllegalStateException.class, () -> RevisionCodec.decode(payload, null, 2, CHANGED_AT));
+    }
+
+    @Test
+    void invalidPayloadIsRejected() {
+        assertThrows(UncheckedIOException.class,
+                () -> RevisionCodec.decode(new byte[]{1, 2, 3}, null, 1, CHANGED_AT));
+    }
+
+    private static void assertDeltaRoundTrip(String previousContent, String content) {
+        Revision previous = new Revision(1, "Titel", previousContent, CHANGED_AT);
+
+        byte[] payload = RevisionCodec.encodeDelta(previousContent, "Titel", content);
+
+        assertEquals(content, RevisionCodec.decode(payload, previous, 2, CHANGED_AT).getContent());
+    }
+}
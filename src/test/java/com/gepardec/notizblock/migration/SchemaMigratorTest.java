@@ -0,0 +1,115 @@
+package com.gepardec.notizblock.migration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigratorTest {
+
+    private final SchemaMigrator migrator = new SchemaMigrator();
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + System.nanoTime());
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void scriptIsSplitAtSemicolonsAtLineEnd() {
+        List<String> statements = SchemaMigrator.statements("""
+                CREATE TABLE a (
+                    id BIGINT NOT NULL
+                );
+                INSERT INTO a VALUES (1);
+                """);
+
+        assertEquals(List.of("CREATE TABLE a (\n    id BIGINT NOT NULL\n)", "INSERT INTO a VALUES (1)"), statements);
+    }
+
+    @Test
+    void commentAndBlankLinesAreSkipped() {
+        List<String> statements = SchemaMigrator.statements("""
+                -- Kommentar; mit Semikolon
+                
+                  -- eingerückter Kommentar
+                DROP TABLE a;
+                """);
+
+        assertEquals(List.of("DROP TABLE a"), statements);
+    }
+
+    @Test
+    void semicolonInsideLineDoesNotSplit() {
+        List<String> statements = SchemaMigrator.statements("INSERT INTO a VALUES ('x;y');\r\n");
+
+        assertEquals(List.of("INSERT INTO a VALUES ('x;y')"), statements);
+    }
+
+    @Test
+    void lastStatementWithoutSemicolonIsKept() {
+        List<String> statements = SchemaMigrator.statements("DROP TABLE a;\nDROP TABLE b");
+
+        assertEquals(2, statements.size());
+        assertEquals("DROP TABLE b", statements.get(1).strip());
+    }
+
+    @Test
+    void checksumIgnoresLineEndings() {
+        assertEquals(SchemaMigrator.checksum("CREATE TABLE a (id BIGINT);\n"),
+                SchemaMigrator.checksum("CREATE TABLE a (id BIGINT);\r\n"));
+    }
+
+    @Test
+    void checksumDetectsChanges() {
+        assertNotEquals(SchemaMigrator.checksum("CREATE TABLE a (id BIGINT);"),
+                SchemaMigrator.checksum("CREATE TABLE a (id INTEGER);"));
+    }
+
+    @Test
+    void migrationsAreAppliedOnlyOnce() throws SQLException {
+        int applied = migrator.migrate(connection);
+
+        assertEquals(migrator.latestVersion(), applied);
+        assertEquals(0, migrator.migrate(connection));
+        assertTrue(migrator.missingIndexes(connection, "notes", "idx_notes_created_at_id", "idx_notes_title").isEmpty());
+        assertEquals(List.of("idx_unbekannt"), migrator.missingIndexes(connection, "notes", "idx_unbekannt"));
+    }
+
+    @Test
+    void changedMigrationIsRejected() throws SQLException {
+        migrator.migrate(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE schema_version SET checksum = checksum + 1 WHERE version = 1");
+        }
+
+        assertThrows(IllegalStateException.class, () -> migrator.migrate(connection));
+    }
+
+    @Test
+    void newerDatabaseIsRejected() throws SQLException {
+        migrator.migrate(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO schema_version (version, script, checksum, installedAt) "
+                    + "VALUES (" + (migrator.latestVersion() + 1) + ", 'V99__neu.sql', 0, CURRENT_TIMESTAMP)");
+        }
+
+        assertThrows(IllegalStateException.class, () -> migrator.migrate(connection));
+    }
+}
@@ -0,0 +1,231 @@
+package com.gepardec.notizblock.readmodel;
+
+import com.gepardec.notizblock.entity.ChangeType;
+import com.gepardec.notizblock.event.NoteChangedEvent;
+import com.gepardec.notizblock.model.NoteCursor;
+import com.gepardec.notizblock.model.NoteSummary;
+import com.gepardec.notizblock.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteReadModelTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 10, 1, 9, 0);
+
+    private StoredNotes database;
+    private NoteReadModel readModel;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        database = new StoredNotes();
+        readModel = new NoteReadModel();
+        Field field = NoteReadModel.class.getDeclaredField("noteRepository");
+        field.setAccessible(true);
+        field.set(readModel, database);
+    }
+
+    @Test
+    void pagesFollowSortOrderOfTheDatabase() {
+        database.add(1, "Delta");
+        database.add(2, "alpha");
+        database.add(3, "Charlie");
+        database.add(4, "Bravo");
+        readModel.rebuild();
+
+        assertEquals(List.of(4L, 3L), ids(readModel.findPage(0, 2, "createdAt", false, null)));
+        assertEquals(List.of(2L, 1L), ids(readModel.findPage(2, 2, "createdAt", false, null)));
+        assertEquals(List.of(1L, 2L, 3L), ids(readModel.findPage(0, 3, "createdAt", true, null)));
+        assertEquals(List.of(4L, 3L, 1L, 2L), ids(readModel.findPage(0, 10, "title", true, null)));
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(readModel.findPage(0, 10, null, true, null)));
+        assertEquals(0, database.queries);
+    }
+
+    @Test
+    void titleFilterIgnoresCaseForPagesAndCount() {
+        database.add(1, "Einkaufsliste");
+        database.add(2, "Urlaub");
+        database.add(3, "Liste für den Urlaub");
+        readModel.rebuild();
+
+        assertEquals(List.of(3L, 1L), ids(readModel.findPage(0, 10, "createdAt", false, " LISTE ")));
+        assertEquals(2L, readModel.count("liste"));
+        assertEquals(3L, readModel.count());
+        assertEquals(3L, readModel.count("  "));
+    }
+
+    @Test
+    void keysetPagingContinuesAfterCursor() {
+        for (long id = 1; id <= 5; id++) {
+            database.add(id, "Notiz " + id);
+        }
+        readModel.rebuild();
+
+        List<NoteSummary> first = readModel.findNextPage(null, 2);
+        NoteSummary last = first.get(first.size() - 1);
+        List<NoteSummary> second = readModel.findNextPage(new NoteCursor(last.getCreatedAt(), last.getId()), 2);
+
+        assertEquals(List.of(5L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L), ids(second));
+    }
+
+    @Test
+    void loadReadsAllBatches() {
+        for (long id = 1; id <= 2500; id++) {
+            database.add(id, "Notiz " + id);
+        }
+        readModel.rebuild();
+
+        assertEquals(2500L, readModel.count());
+        assertEquals(List.of(1L), ids(readModel.findPage(2499, 10, "createdAt", false, null)));
+    }
+
+    @Test
+    void changesUpdateTheModel() {
+        database.add(1, "Alt");
+        readModel.rebuild();
+
+        readModel.onNoteChanged(event(2, ChangeType.CREATED, "Neu", START.plusMinutes(2), START.plusMinutes(2)));
+        readModel.onNoteChanged(event(1, ChangeType.UPDATED, "Geändert", START.plusMinutes(3), START.plusMinutes(3)));
+
+        assertEquals(List.of(2L, 1L), ids(readModel.findPage(0, 10, "createdAt", false, null)));
+        assertEquals("Geändert", readModel.findSummaryById(1L).orElseThrow().getTitle());
+        assertEquals(List.of(1L, 2L), ids(readModel.findPage(0, 10, "title", true, null)));
+    }
+
+    @Test
+    void olderUpdateIsIgnored() {
+        database.add(1, "Alt");
+        readModel.rebuild();
+
+        readModel.onNoteChanged(event(1, ChangeType.UPDATED, "Neu", START.plusMinutes(5), START.plusMinutes(5)));
+        readModel.onNoteChanged(event(1, ChangeType.UPDATED, "Veraltet", START.plusMinutes(4), START.plusMinutes(4)));
+
+        assertEquals("Neu", readModel.findSummaryById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void updateArrivingAfterDeleteDoesNotRestoreNote() {
+        database.add(1, "Notiz");
+        readModel.rebuild();
+
+        readModel.onNoteChanged(deleted(1, START.plusMinutes(5)));
+        readModel.onNoteChanged(event(1, ChangeType.UPDATED, "Spät", START.plusMinutes(4), START.plusMinutes(4)));
+
+        assertTrue(readModel.findSummaryById(1L).isEmpty());
+        assertEquals(0L, readModel.count());
+        assertEquals(0, database.queries);
+    }
+
+    @Test
+    void changeAfterDeleteIsApplied() {
+        database.add(1, "Notiz");
+        readModel.rebuild();
+
+        readModel.onNoteChanged(deleted(1, START.plusMinutes(5)));
+        readModel.onNoteChanged(event(1, ChangeType.CREATED, "Importiert", START.plusMinutes(6), START.plusMinutes(6)));
+
+        assertEquals("Importiert", readModel.findSummaryById(1L).orElseThrow().getTitle());
+    }
+
+    @Test
+    void tombstoneSurvivesRebuild() {
+        database.add(1, "Notiz");
+        database.add(2, "Bleibt");
+        readModel.rebuild();
+
+        database.notes.remove(1L);
+        readModel.onNoteChanged(deleted(1, START.plusMinutes(5)));
+        readModel.rebuild();
+        readModel.onNoteChanged(event(1, ChangeType.UPDATED, "Spät", START.plusMinutes(4), START.plusMinutes(4)));
+
+        assertTrue(readModel.findSummaryById(1L).isEmpty());
+        assertEquals(List.of(2L), ids(readModel.findPage(0, 10, "createdAt", false, null)));
+    }
+
+    @Test
+    void unknownChangeTakesStateFromDatabase() {
+        readModel.rebuild();
+        database.add(7, "Aus der Datenbank");
+
+        readModel.onNoteChanged(event(7, ChangeType.UPDATED, "Aus dem Event", START, START.plusMinutes(1)));
+
+        assertEquals("Aus der Datenbank", readModel.findSummaryById(7L).orElseThrow().getTitle());
+        assertEquals(1, database.queries);
+    }
+
+    @Test
+    void unknownChangeOfDeletedNoteLeavesTombstone() {
+        readModel.rebuild();
+
+        readModel.onNoteChanged(event(7, ChangeType.UPDATED, "Gelöscht", START, START.plusMinutes(1)));
+        readModel.onNoteChanged(event(7, ChangeType.UPDATED, "Noch älter", START, START.plusMinutes(1)));
+
+        assertTrue(readModel.findSummaryById(7L).isEmpty());
+        assertEquals(1, database.queries);
+    }
+
+    private static NoteChangedEvent event(long id, ChangeType changeType, String title, LocalDateTime updatedAt,
+                                          LocalDateTime changedAt) {
+        return new NoteChangedEvent(id, changeType, title, "Inhalt", START.plusSeconds(id), updatedAt, changedAt);
+    }
+
+    private static NoteChangedEvent deleted(long id, LocalDateTime changedAt) {
+        return new NoteChangedEvent(id, ChangeType.DELETED, null, null, null, null, changedAt);
+    }
+
+    private static List<Long> ids(List<NoteSummary> notes) {
+        return notes.stream().map(NoteSummary::getId).toList();
+    }
+
+    /**
+     * Notizen der Datenbank, nur die Abfragen, die das Lesemodell beim Aufbau und für unbekannte Notizen stellt
+     */
+    private static final class StoredNotes extends NoteRepository {
+
+        private final Map<Long, NoteSummary> notes = new TreeMap<>();
+
+        // Abfragen außerhalb des Aufbaus
+        private int queries;
+
+        void add(long id, String title) {
+            notes.put(id, new NoteSummary(id, title, "Inhalt", START.plusSeconds(id), START));
+        }
+
+        @Override
+        public List<NoteSummary> findSummaryBatch(Long afterId, int limit) {
+            return notes.values().stream()
+                    .filter(note -> afterId == null || note.getId() > afterId)
+                    .limit(limit)
+                    .toList();
+        }
+
+        @Override
+        public Optional<NoteSummary> findSummaryById(Long id) {
+            queries++;
+            return Optional.ofNullable(notes.get(id));
+        }
+
+        @Override
+        public List<NoteSummary> findPage(int first, int pageSize, String sortField, boolean ascending,
+                                          String titleFilter) {
+            queries++;
+            return List.of();
+        }
+
+        @Override
+        public Long count(String titleFilter) {
+            queries++;
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.gepardec.notizblock.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+    }
+
+    @Test
+    void titleMatchRanksAboveContentMatch() {
+        index.put(1L, "Einkaufsliste", "Milch und Brot");
+        index.put(2L, "Milch", "Nicht vergessen");
+        index.put(3L, "Urlaub", "Koffer packen");
+
+        List<SearchHit> hits = index.search("milch", 10);
+
+        assertEquals(List.of(2L, 1L), noteIds(hits));
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void matchesMoreQueryTermsRankHigher() {
+        index.put(1L, "Notiz", "Brot kaufen");
+        index.put(2L, "Notiz", "Brot und Butter kaufen");
+        index.put(3L, "Notiz", "Butter");
+
+        List<SearchHit> hits = index.search("brot butter", 10);
+
+        assertEquals(2L, hits.get(0).getNoteId());
+        assertEquals(3, hits.size());
+    }
+
+    @Test
+    void equalScoresAreOrderedByNoteId() {
+        index.put(7L, "Termin", "Zahnarzt");
+        index.put(3L, "Termin", "Zahnarzt");
+
+        assertEquals(List.of(3L, 7L), noteIds(index.search("zahnarzt", 10)));
+    }
+
+    @Test
+    void searchIsCaseInsensitiveAndIgnoresShortTerms() {
+        index.put(1L, "Java Notizen", "JPA & CDI");
+
+        assertEquals(List.of(1L), noteIds(index.search("JAVA", 10)));
+        assertEquals(List.of(1L), noteIds(index.search("cdi", 10)));
+        assertTrue(index.search("a &", 10).isEmpty());
+    }
+
+    @Test
+    void searchRespectsLimit() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(id, "Notiz " + id, "gemeinsam");
+        }
+
+        assertEquals(2, index.search("gemeinsam", 2).size());
+    }
+
+    @Test
+    void removedNoteIsNoLongerFound() {
+        index.put(1L, "Einkaufsliste", "Milch");
+        index.put(2L, "Milch", "Brot");
+
+        index.remove(2L);
+
+        assertEquals(List.of(1L), noteIds(index.search("milch", 10)));
+        assertTrue(index.search("brot", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void removingUnknownNoteIsIgnored() {
+        index.put(1L, "Einkaufsliste", "Milch");
+
+        index.remove(42L);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), noteIds(index.search("milch", 10)));
+    }
+
+    @Test
+    void putReplacesPreviousTerms() {
+        index.put(1L, "Alt", "vorher");
+
+        index.put(1L, "Neu", "nachher");
+
+        assertTrue(index.search("vorher", 10).isEmpty());
+        assertEquals(List.of(1L), noteIds(index.search("nachher", 10)));
+        assertEquals("Neu", index.search("neu", 10).get(0).getTitle());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void emptyQueryOrIndexYieldsNoHits() {
+        assertTrue(index.search("milch", 10).isEmpty());
+
+        index.put(1L, "Milch", "");
+
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    private static List<Long> noteIds(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getNoteId).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.gepardec.notizblock.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvTest {
+
+    @Test
+    void plainFieldsAreWrittenWithoutQuotes() throws IOException {
+        assertEquals("1,Titel,Inhalt\r\n", write("1", "Titel", "Inhalt"));
+    }
+
+    @Test
+    void specialCharactersAreQuoted() throws IOException {
+        assertEquals("\"a,b\",\"zeile1\nzeile2\",\"cr\r\"\r\n", write("a,b", "zeile1\nzeile2", "cr\r"));
+    }
+
+    @Test
+    void quotesAreEscapedByDoubling() throws IOException {
+        assertEquals("\"Er sagte \"\"Hallo\"\"\"\r\n", write("Er sagte \"Hallo\""));
+    }
+
+    @Test
+    void nullAndEmptyStringAreDistinguished() throws IOException {
+        String line = write(null, "", "x");
+
+        assertEquals(",\"\",x\r\n", line);
+        assertEquals(Arrays.asList(null, "", "x"), read(line).get(0));
+    }
+
+    @Test
+    void roundTripKeepsAllValues() throws IOException {
+        String[] fields = {"42", "Komma, \"Zitat\" und\r\nUmbruch", "äöü ß 😀", "", null, "ende"};
+
+        List<List<String>> records = read(write(fields) + write("zweite", "zeile"));
+
+        assertEquals(2, records.size());
+        assertEquals(Arrays.asList(fields), records.get(0));
+        assertEquals(List.of("zweite", "zeile"), records.get(1));
+    }
+
+    @Test
+    void readerAcceptsLfAndMissingFinalLineBreak() throws IOException {
+        List<List<String>> records = read("a,b\nc,d");
+
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d")), records);
+    }
+
+    @Test
+    void readerReturnsNullAtEndOfInput() throws IOException {
+        assertNull(Csv.readRecord(new BufferedReader(new StringReader(""))));
+    }
+
+    @Test
+    void unclosedQuoteIsRejected() {
+        assertThrows(TransferException.class, () -> read("\"offen,1\r\n"));
+    }
+
+    private static String write(String... fields) throws IOException {
+        StringWriter writer = new StringWriter();
+        Csv.writeRecord(writer, fields);
+        return writer.toString();
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = Csv.readRecord(reader)) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}